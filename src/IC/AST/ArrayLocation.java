@@ -38,6 +38,10 @@ public class ArrayLocation extends Location {
 		return index;
 	}
 
+	public void setIndex(Expression index) {
+		this.index = index;
+	}
+
 	@Override
 	public <DownType, UpType> UpType accept(
 			PropagatingVisitor<DownType, UpType> visitor, DownType context) throws Exception {
@@ -38,6 +38,10 @@ public class Assignment extends Statement {
 		return assignment;
 	}
 
+	public void setAssignment(Expression assignment) {
+		this.assignment = assignment;
+	}
+
 	@Override
 	public <DownType, UpType> UpType accept(
 			PropagatingVisitor<DownType, UpType> visitor, DownType context) throws Exception {
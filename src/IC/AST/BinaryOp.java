@@ -41,8 +41,16 @@ public abstract class BinaryOp extends Expression {
 		return operand1;
 	}
 
+	public void setFirstOperand(Expression operand) {
+		this.operand1 = operand;
+	}
+
 	public Expression getSecondOperand() {
 		return operand2;
 	}
 
+	public void setSecondOperand(Expression operand) {
+		this.operand2 = operand;
+	}
+
 }
@@ -2,6 +2,8 @@ package IC.AST;
 
 import java.util.List;
 
+import IC.SemanticAnalysis.SymbolBinding;
+
 /**
  * Abstract base class for method call AST nodes.
  * 
@@ -13,6 +15,9 @@ public abstract class Call extends Expression {
 
 	private List<Expression> arguments;
 
+	/* the resolved declaration, belongs to a single compilation like the scopes */
+	private SymbolBinding binding;
+
 	/**
 	 * Constructs a new method call node. Used by subclasses.
 	 * 
@@ -37,4 +42,15 @@ public abstract class Call extends Expression {
 		return arguments;
 	}
 
+	/**
+	 * @return The declaration of the method, <code>null</code> if it wasn't resolved.
+	 */
+	public SymbolBinding getBinding() {
+		return binding;
+	}
+
+	public void setBinding(SymbolBinding binding) {
+		this.binding = binding;
+	}
+
 }
@@ -35,4 +35,8 @@ public class ExpressionBlock extends Expression {
 		return expression;
 	}
 
+	public void setExpression(Expression expression) {
+		this.expression = expression;
+	}
+
 }
@@ -70,4 +70,8 @@ public class LocalVariable extends Statement {
 		return initValue;
 	}
 
+	public void setInitValue(Expression initValue) {
+		this.initValue = initValue;
+	}
+
 }
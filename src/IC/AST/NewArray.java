@@ -44,4 +44,8 @@ public class NewArray extends New {
 		return size;
 	}
 
+	public void setSize(Expression size) {
+		this.size = size;
+	}
+
 }
@@ -18,14 +18,19 @@ public class PrettyPrinter implements PropagatingVisitor<SymbolTable, Object> {
 
 	private String ICFilePath;
 
+	private TypeTable typeTable;
+
 	/**
 	 * Constructs a new pretty printer visitor.
 	 * 
 	 * @param ICFilePath
 	 *            The path + name of the IC file being compiled.
+	 * @param typeTable
+	 *            The type table of the compilation.
 	 */
-	public PrettyPrinter(String ICFilePath) {
+	public PrettyPrinter(String ICFilePath, TypeTable typeTable) {
 		this.ICFilePath = ICFilePath;
+		this.typeTable = typeTable;
 	}
 
 	public String print(ASTNode root) {
@@ -388,7 +393,7 @@ public class PrettyPrinter implements PropagatingVisitor<SymbolTable, Object> {
 			if (callerLocation instanceof VariableLocation) {
 				String caller = ((VariableLocation)location.getLocation()).getName();
 				SymbolTableRow type = scope.look(caller);				
-				ClassType c = TypeTable.getClassType(type.getType().getName());
+				ClassType c = typeTable.getClassType(type.getType().getName());
 				type = c.getClassAST().enclosingScope().lookup(location.getName());
 				output.append(", Type: " + type.getType().getName());
 			}
@@ -35,4 +35,8 @@ public abstract class UnaryOp extends Expression {
 		return operand;
 	}
 
+	public void setOperand(Expression operand) {
+		this.operand = operand;
+	}
+
 }
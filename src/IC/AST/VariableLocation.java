@@ -1,5 +1,7 @@
 package IC.AST;
 
+import IC.SemanticAnalysis.SymbolBinding;
+
 /**
  * Variable reference AST node.
  * 
@@ -11,6 +13,9 @@ public class VariableLocation extends Location {
 
 	private String name;
 
+	/* the resolved declaration, belongs to a single compilation like the scopes */
+	private SymbolBinding binding;
+
 	@Override
 	public Object accept(Visitor visitor) {
 		return visitor.visit(this);
@@ -62,4 +67,15 @@ public class VariableLocation extends Location {
 		return name;
 	}
 
+	/**
+	 * @return The declaration of the variable, <code>null</code> if it wasn't resolved.
+	 */
+	public SymbolBinding getBinding() {
+		return binding;
+	}
+
+	public void setBinding(SymbolBinding binding) {
+		this.binding = binding;
+	}
+
 }
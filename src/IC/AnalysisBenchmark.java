@@ -0,0 +1,132 @@
+package IC;
+
+import java.util.concurrent.ForkJoinPool;
+
+import IC.AST.ICClass;
+import IC.AST.Program;
+import IC.SemanticAnalysis.ScopeChecker;
+import IC.SemanticAnalysis.ScopeResolver;
+import IC.SemanticAnalysis.TableConstructor;
+import IC.SemanticAnalysis.TypeAnalyzer;
+import IC.SemanticAnalysis.TypeTableConstructor;
+import IC.TypeTable.TypeTable;
+
+/**
+ * AnalysisBenchmark class to measure the scope and type checks of a program,
+ * as two separate traversals of the AST, as a single fused traversal and as
+ * fused traversals of the method bodies on a fork-join pool. The program is parsed and its tables are built once, only the checks are timed.
+ *
+ * Usage: IC.AnalysisBenchmark file.ic [-Lfile] [rounds]
+ */
+public class AnalysisBenchmark {
+
+    private static final int DEFAULT_ROUNDS = 500;
+
+    /**
+     * The rounds of each mode run before the timing, so both are compiled by the JIT
+     */
+    private static final int WARMUP_ROUNDS = 100;
+
+    public static void main(String[] args) throws Exception {
+        String programPath = null, libraryArg = null;
+        int rounds = DEFAULT_ROUNDS;
+
+        for (String arg : args) {
+            if (arg.startsWith("-L")) {
+                libraryArg = arg;
+            } else if (programPath == null) {
+                programPath = arg;
+            } else {
+                rounds = Integer.parseInt(arg);
+            }
+        }
+
+        if (programPath == null) {
+            System.err.println("Usage: IC.AnalysisBenchmark file.ic [-Lfile] [rounds]");
+            System.exit(1);
+        }
+
+        Program root = Compiler.createAST(programPath);
+
+        if (root == null) {
+            System.exit(1);
+        }
+
+        if (libraryArg != null) {
+            ICClass library = Compiler.addLibrary(libraryArg, null);
+
+            if (library == null) {
+                System.exit(1);
+            }
+
+            root.getClasses().add(0, library);
+        }
+
+        TypeTable typeTable = new TypeTable();
+        new TypeTableConstructor(root, typeTable).run();
+        new TableConstructor(programPath, root, typeTable).construct();
+        new ScopeResolver(root, typeTable).resolve();
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        String separateErrors = analyze(root, typeTable, false, null);
+        String fusedErrors = analyze(root, typeTable, true, null);
+        String parallelErrors = analyze(root, typeTable, true, pool);
+
+        if (!separateErrors.equals(fusedErrors) || !separateErrors.equals(parallelErrors)) {
+            System.err.println("The analysis modes reported other diagnostics:\n" + separateErrors
+                    + "\n---\n" + fusedErrors + "\n---\n" + parallelErrors);
+            System.exit(1);
+        }
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            analyze(root, typeTable, false, null);
+            analyze(root, typeTable, true, null);
+            analyze(root, typeTable, true, pool);
+        }
+
+        long separateTime = 0, fusedTime = 0, parallelTime = 0;
+
+        /* the modes alternate, so all of them see the same state of the machine */
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            analyze(root, typeTable, false, null);
+            long separateEnd = System.nanoTime();
+            analyze(root, typeTable, true, null);
+            long fusedEnd = System.nanoTime();
+            analyze(root, typeTable, true, pool);
+            long parallelEnd = System.nanoTime();
+
+            separateTime += separateEnd - start;
+            fusedTime += fusedEnd - separateEnd;
+            parallelTime += parallelEnd - fusedEnd;
+        }
+
+        System.out.printf("%s: %d rounds, %d threads%n", programPath, rounds, pool.getParallelism());
+        System.out.printf("separate scope and type checks: %.3f ms per round%n", separateTime / 1e6 / rounds);
+        System.out.printf("fused scope and type checks:    %.3f ms per round (%.1f%% saved)%n",
+                fusedTime / 1e6 / rounds, 100.0 * (separateTime - fusedTime) / separateTime);
+        System.out.printf("parallel fused checks:          %.3f ms per round (%.1f%% saved)%n",
+                parallelTime / 1e6 / rounds, 100.0 * (separateTime - parallelTime) / separateTime);
+    }
+
+    /**
+     * Run the scope and type checks
+     * @return the scope errors followed by the type errors
+     */
+    private static String analyze(Program root, TypeTable typeTable, boolean fused, ForkJoinPool pool)
+            throws Exception {
+        ScopeChecker scopeChecker = new ScopeChecker(root, typeTable);
+        TypeAnalyzer analyzer;
+
+        if (fused) {
+            analyzer = new TypeAnalyzer(root, typeTable, scopeChecker, pool);
+        } else {
+            scopeChecker.test();
+            analyzer = new TypeAnalyzer(root, typeTable);
+        }
+
+        analyzer.test();
+
+        return scopeChecker.getErrors() + analyzer.getErrors();
+    }
+}
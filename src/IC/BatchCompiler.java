@@ -0,0 +1,95 @@
+package IC;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * BatchCompiler class to compile many IC programs in a single JVM.
+ * The library file is parsed once, by the first program, and every
+ * program links its own copy of it from the library cache.
+ *
+ * Usage: IC.Compiler -batch (file.ic | directory)... [-Lfile] [flags]
+ */
+public class BatchCompiler {
+
+    /**
+     * The flag that switches the compiler to batch mode
+     */
+    public static final String BATCH_FLAG = "-batch";
+
+    private static final String IC_EXTENSION = ".ic";
+
+    private final List<String> programPaths;
+    private final List<String> flags;
+
+    /**
+     * The BatchCompiler constructor method
+     * @param programArgs the arguments of the program, starting with the batch flag
+     */
+    public BatchCompiler(String[] programArgs) {
+        this.programPaths = new ArrayList<>();
+        this.flags = new ArrayList<>();
+
+        for (String arg : programArgs) {
+            if (arg.equals(BATCH_FLAG)) {
+                continue;
+            }
+
+            if (arg.startsWith("-")) {
+                flags.add(arg);
+            } else {
+                addPrograms(new File(arg));
+            }
+        }
+    }
+
+    /**
+     * Compile all the programs, one after the other
+     * @return whether all the programs were compiled successfully
+     */
+    public boolean compileAll() {
+        int succeeded = 0;
+
+        for (String programPath : programPaths) {
+            List<String> compilerArgs = new ArrayList<>();
+            compilerArgs.add(programPath);
+            compilerArgs.addAll(flags);
+
+            boolean result = new Compiler(compilerArgs.toArray(new String[compilerArgs.size()])).compile();
+
+            if (result) {
+                succeeded += 1;
+            }
+
+            System.out.println("\n" + (result ? "[OK] " : "[FAILED] ") + programPath);
+        }
+
+        System.out.println("Batch: " + succeeded + " of " + programPaths.size() + " programs compiled successfully");
+
+        return succeeded == programPaths.size();
+    }
+
+    public List<String> getProgramPaths() {
+        return this.programPaths;
+    }
+
+    private void addPrograms(File file) {
+        if (file.isDirectory()) {
+            File[] children = file.listFiles();
+
+            if (children != null) {
+                Arrays.sort(children);
+
+                for (File child : children) {
+                    if (child.isDirectory() || child.getName().endsWith(IC_EXTENSION)) {
+                        addPrograms(child);
+                    }
+                }
+            }
+        } else {
+            programPaths.add(file.getPath());
+        }
+    }
+}
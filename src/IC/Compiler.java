@@ -1,10 +1,22 @@
 package IC;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
-import IC.LirTranslate.Translator;
+import IC.Server.CompileServer;
+import IC.Lir.LirProgram;
+import IC.Lir.MicroLirBuilder;
+import microLIR.Interpreter;
 import microLIR.Main;
 import IC.AST.ICClass;
 import IC.AST.Program;
@@ -19,8 +31,10 @@ import java_cup.runtime.Symbol;
 import IC.SemanticAnalysis.Tester;
 import IC.SemanticAnalysis.TypeAnalyzer;
 import IC.SemanticAnalysis.ScopeChecker;
+import IC.SemanticAnalysis.ScopeResolver;
 import IC.SemanticAnalysis.SemanticError;
 import IC.LirTranslate.OptimizedTranslator;
+import IC.LirTranslate.ConstantFolder;
 import IC.LirTranslate.SethiUllmanAlgorithm;
 import IC.SemanticAnalysis.TableConstructor;
 import IC.SemanticAnalysis.TypeTableConstructor;
@@ -30,7 +44,77 @@ public class Compiler {
 
     private final String[] programArgs;
 
+    /**
+     * The translated LIR program, read from the LIR file on demand
+     */
+    private String lirOutput;
+
+    /**
+     * The written LIR file, <code>null</code> if the program wasn't translated
+     */
+    private File lirOutputFile;
+
+    /**
+     * The translated program of an in-memory run, <code>null</code> if it was written to a file
+     */
+    private LirProgram lirProgram;
+
+    /**
+     * Whether the translated program runs in a child JVM, so a program that exits can't stop the current one
+     */
+    private boolean forkExecution;
+
+    /**
+     * The flag that runs the translated program in the interpreter without writing the LIR file
+     */
+    public static final String RUN_IN_MEMORY_FLAG = "-run-in-memory";
+
+    /**
+     * The flag that checks the scopes and the types in a single traversal of the AST
+     */
+    public static final String FUSED_ANALYSIS_FLAG = "-fused-analysis";
+
+    /**
+     * The flag that checks the method bodies concurrently, each in a single traversal
+     */
+    public static final String PARALLEL_ANALYSIS_FLAG = "-parallel-analysis";
+
+    /**
+     * The flag that keeps the runtime checks as calls, the LIR is smaller but runs slower
+     */
+    public static final String OPTIMIZE_SIZE_FLAG = "-optimize-size";
+
+    /**
+     * The flag that enables the LIR cache in the given directory
+     */
+    public static final String LIR_CACHE_FLAG = "-lir-cache=";
+
+    /**
+     * The flag that sets the maximal size of the LIR cache, in megabytes
+     */
+    public static final String LIR_CACHE_SIZE_FLAG = "-lir-cache-size=";
+
+    /**
+     * The flag that enables the on-disk cache of parsed library files in the given directory
+     */
+    public static final String LIBRARY_CACHE_FLAG = "-library-cache=";
+
+    /**
+     * The flag that prints the number of instructions the dead code elimination removed, on stderr
+     */
+    public static final String DCE_STATS_FLAG = "-dce-stats";
+
 	public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals(BatchCompiler.BATCH_FLAG)) {
+            boolean result = new BatchCompiler(args).compileAll();
+            System.exit(result ? 0 : 1);
+        }
+
+        if (args.length > 0 && args[0].equals(CompileServer.SERVER_FLAG)) {
+            CompileServer.main(args);
+            return;
+        }
+
         new Compiler(args).compile();
 	}
 
@@ -42,18 +126,32 @@ public class Compiler {
         this.programArgs = programArgs;
     }
 
+    /**
+     * Run the translated program in a child JVM instead of the current one, e.g. in a resident server
+     * @param forkExecution whether to run the program in a child JVM
+     */
+    public void setForkExecution(boolean forkExecution) {
+        this.forkExecution = forkExecution;
+    }
+
     /**
      * The Compiler execution method
      * @return whether the compilation was a success or a fail
      */
     public boolean compile() {
-        String programPath;
-        boolean printAst = false, dumpSymtab = false, printLir = false, result = false;
+        String programPath, cacheDirectory = null;
+        File libraryCacheDirectory = null;
+        boolean printAst = false, dumpSymtab = false, printLir = false, runInMemory = false, result = false;
+        boolean fusedAnalysis = false, parallelAnalysis = false, optimizeSize = false, dceStats = false;
+        long cacheSize = LirCache.DEFAULT_MAX_SIZE_MB;
+        List<String> libraryArgs = new ArrayList<>();
+        List<String> outputFlags = new ArrayList<>();
+        LirCache lirCache = null;
+        String cacheKey = null;
 
         if (programArgs.length > 0) {
             try {
                 programPath = programArgs[0];
-                Program textRoot = createAST(programPath);
 
                 for (String arg : programArgs) {
                     if (arg.equals("-print-ast")) {
@@ -62,53 +160,133 @@ public class Compiler {
                         dumpSymtab = true;
                     } else if (arg.equals("-print-lir")) {
                         printLir = true;
-                    } else if (arg.startsWith("-L") && textRoot != null) {
-                        /* adding the library to the main tree */
-                        textRoot.getClasses().add(0, addLibrary(arg));
-                    } else {
-                        result = true;
+                    } else if (arg.equals(RUN_IN_MEMORY_FLAG)) {
+                        runInMemory = true;
+                    } else if (arg.equals(OPTIMIZE_SIZE_FLAG)) {
+                        optimizeSize = true;
+                    } else if (arg.equals(FUSED_ANALYSIS_FLAG)) {
+                        /* the analysis flags change neither the diagnostics nor the output, they aren't part of the cache key */
+                        fusedAnalysis = true;
+                        continue;
+                    } else if (arg.equals(PARALLEL_ANALYSIS_FLAG)) {
+                        parallelAnalysis = true;
+                        continue;
+                    } else if (arg.equals(DCE_STATS_FLAG)) {
+                        /* the statistics don't change the output either */
+                        dceStats = true;
+                        continue;
+                    } else if (arg.startsWith("-L")) {
+                        libraryArgs.add(arg);
+                        continue;
+                    } else if (arg.startsWith(LIR_CACHE_SIZE_FLAG)) {
+                        cacheSize = Long.parseLong(arg.substring(LIR_CACHE_SIZE_FLAG.length()));
+                        continue;
+                    } else if (arg.startsWith(LIR_CACHE_FLAG)) {
+                        cacheDirectory = arg.substring(LIR_CACHE_FLAG.length());
+                        continue;
+                    } else if (arg.startsWith(LIBRARY_CACHE_FLAG)) {
+                        libraryCacheDirectory = new File(arg.substring(LIBRARY_CACHE_FLAG.length()));
+                        continue;
+                    }
+
+                    if (arg.startsWith("-")) {
+                        outputFlags.add(arg);
+                    }
+                }
+
+                if (printLir && !printAst && !dumpSymtab && !runInMemory && cacheDirectory != null) {
+                    lirCache = new LirCache(new File(cacheDirectory), cacheSize * 1024 * 1024);
+                    cacheKey = createCacheKey(lirCache, programPath, libraryArgs, outputFlags);
+
+                    if (cacheKey != null && runCachedLir(lirCache.lookup(cacheKey), programPath)) {
+                        return true;
                     }
                 }
 
-                TypeTableConstructor typeTableConstructor = new TypeTableConstructor(textRoot);
+                Program textRoot = createAST(programPath);
+
+                if (textRoot == null) {
+                    return false;
+                }
+
+                /* every compilation owns its types, so compilations don't share state */
+                TypeTable typeTable = new TypeTable();
+
+                for (String libraryArg : libraryArgs) {
+                    /* adding the library to the main tree */
+                    textRoot.getClasses().add(0, addLibrary(libraryArg, libraryCacheDirectory));
+                }
+
+                TypeTableConstructor typeTableConstructor = new TypeTableConstructor(textRoot, typeTable);
                 typeTableConstructor.run();
 
-                TableConstructor tableConstructor = new TableConstructor(programPath, textRoot);
+                TableConstructor tableConstructor = new TableConstructor(programPath, textRoot, typeTable);
                 tableConstructor.construct();
 
-                Tester scopeChecker = new ScopeChecker(textRoot);
-                scopeChecker.test();
+                /* names are bound to their declarations once, the passes below use the bindings */
+                new ScopeResolver(textRoot, typeTable).resolve();
+
+                ScopeChecker scopeChecker = new ScopeChecker(textRoot, typeTable);
+                Tester analyzer;
+
+                if (parallelAnalysis) {
+                    analyzer = new TypeAnalyzer(textRoot, typeTable, scopeChecker, ForkJoinPool.commonPool());
+                } else if (fusedAnalysis) {
+                    analyzer = new TypeAnalyzer(textRoot, typeTable, scopeChecker);
+                } else {
+                    scopeChecker.test();
+                    analyzer = new TypeAnalyzer(textRoot, typeTable);
+                }
 
-                Tester analyzer = new TypeAnalyzer(textRoot);
                 analyzer.test();
 
-                if (printAst && textRoot != null) {
-                    PrettyPrinter textPrinter = new PrettyPrinter(programPath);
+                if (printAst) {
+                    PrettyPrinter textPrinter = new PrettyPrinter(programPath, typeTable);
                     System.out.print(textPrinter.print(textRoot) + "\n");
                     result = true;
-                } else if (dumpSymtab && textRoot != null) {
+                } else if (dumpSymtab) {
                     SemanticTablePrinter semanticPrinter = new SemanticTablePrinter(programPath);
                     System.out.print(semanticPrinter.print(textRoot));
-                    System.out.print(TypeTable.print(programPath) + "\n");
+                    System.out.print(typeTable.print(programPath) + "\n");
                     result = true;
-                } else if (printLir && textRoot != null) {
+                } else if (printLir) {
                     if (scopeChecker.isAllGood() && analyzer.isAllGood()) {
+                        new ConstantFolder(textRoot).fold();
+
                         SethiUllmanAlgorithm sethiUllmanAlgorithm = new SethiUllmanAlgorithm(textRoot);
                         sethiUllmanAlgorithm.analyze();
 
-                        //Translator translator = new Translator(textRoot);
-                        OptimizedTranslator translator = new OptimizedTranslator(textRoot);
-                        String output = translator.translate();
+                        OptimizedTranslator translator = new OptimizedTranslator(textRoot, typeTable);
+                        translator.setOptimizeSize(optimizeSize);
+
+                        /* a child JVM reads the program from the LIR file */
+                        if (runInMemory && !forkExecution) {
+                            lirProgram = new LirProgram();
+                            translator.translate(lirProgram);
+                            printDceStats(dceStats, translator);
+                            runProgram(lirProgram);
+                            return true;
+                        }
 
-                        LirFileCreator lirFileCreator = new LirFileCreator(programPath, output);
-                        lirFileCreator.createFile();
+                        LirFileCreator lirFileCreator = new LirFileCreator(programPath);
 
-                        Main.main(new String[]{lirFileCreator.getFilePath()});
+                        /* the lir is streamed to the file, it's read back only if someone asks for it */
+                        lirFileCreator.createFile(translator);
+                        lirOutputFile = new File(lirFileCreator.getFilePath());
+                        printDceStats(dceStats, translator);
+
+                        if (cacheKey != null) {
+                            lirCache.store(cacheKey, lirOutputFile);
+                        }
+
+                        runLirFile(lirFileCreator.getFilePath());
                         result = true;
                     } else {
                         System.err.println(scopeChecker.getErrors());
                         System.err.println(analyzer.getErrors());
                     }
+                } else {
+                    result = tableConstructor.isAllGood() && scopeChecker.isAllGood() && analyzer.isAllGood();
                 }
             } catch (Exception e) {
                 e.printStackTrace();
@@ -118,7 +296,152 @@ public class Compiler {
         return result;
     }
 
-    private Program createAST(String programPath) {
+    private static void printDceStats(boolean dceStats, OptimizedTranslator translator) {
+        if (dceStats) {
+            System.err.println("Dead code elimination removed " + translator.getRemovedInstructionsCount() + " instructions");
+        }
+    }
+
+    /**
+     * Get the translated LIR program of the last compilation
+     * @return the LIR program, <code>null</code> if the program wasn't translated
+     */
+    public String getLirOutput() {
+        if (lirOutput == null && lirProgram != null) {
+            lirOutput = lirProgram.toString();
+        } else if (lirOutput == null && lirOutputFile != null) {
+            try {
+                lirOutput = new String(Files.readAllBytes(lirOutputFile.toPath()), StandardCharsets.UTF_8);
+            } catch (IOException ex) {
+                System.err.println("Failed to read " + lirOutputFile);
+            }
+        }
+
+        return this.lirOutput;
+    }
+
+    /**
+     * Run a translated program in the interpreter, the program is handed over
+     * as interpreter instructions so it's never written or parsed again
+     * @param lirProgram the translated program
+     */
+    private void runProgram(LirProgram lirProgram) {
+        microLIR.instructions.Program program = MicroLirBuilder.build(lirProgram);
+
+        /* microLIR keeps its state in static fields, run one program at a time */
+        synchronized (Main.class) {
+            try {
+                new Interpreter(program).execute();
+            } catch (Exception ex) {
+                System.out.print(ex);
+            }
+        }
+    }
+
+    private String createCacheKey(LirCache lirCache, String programPath, List<String> libraryArgs, List<String> flags) {
+        List<String> libraryPaths = new ArrayList<>();
+
+        for (String libraryArg : libraryArgs) {
+            libraryPaths.add(libraryArg.substring(2));
+        }
+
+        try {
+            return lirCache.key(programPath, libraryPaths, flags);
+        } catch (IOException ex) {
+            /* missing files are reported by the compilation itself */
+            return null;
+        }
+    }
+
+    /**
+     * Write and run a cached LIR program, skipping every compilation phase
+     * @param cachedLir the cached LIR file, <code>null</code> on a cache miss
+     * @param programPath the path of the IC program
+     * @return whether the cached program was used
+     */
+    private boolean runCachedLir(File cachedLir, String programPath) {
+        if (cachedLir == null) {
+            return false;
+        }
+
+        LirFileCreator lirFileCreator = new LirFileCreator(programPath);
+
+        if (!lirFileCreator.createFile(cachedLir)) {
+            return false;
+        }
+
+        try {
+            runLirFile(lirFileCreator.getFilePath());
+        } catch (IOException | InterruptedException ex) {
+            System.err.println("Failed to run " + lirFileCreator.getFilePath());
+        }
+
+        lirOutputFile = new File(lirFileCreator.getFilePath());
+        return true;
+    }
+
+    /**
+     * Run a LIR file in the microLIR interpreter, in a child JVM when the execution is forked
+     * @param lirPath the LIR file path
+     * @throws IOException if the child JVM can't be started
+     * @throws InterruptedException if the thread is interrupted while waiting for the child JVM
+     */
+    private void runLirFile(String lirPath) throws IOException, InterruptedException {
+        if (forkExecution) {
+            runInChildProcess(lirPath);
+            return;
+        }
+
+        /* microLIR keeps its options in static fields, run one program at a time */
+        synchronized (Main.class) {
+            Main.main(new String[]{lirPath});
+        }
+    }
+
+    /**
+     * Run a LIR file in a child JVM, its output is copied to the output of the current thread
+     * @param lirPath the LIR file path
+     * @throws IOException if the child JVM can't be started
+     * @throws InterruptedException if the thread is interrupted while waiting for the child JVM
+     */
+    private static void runInChildProcess(String lirPath) throws IOException, InterruptedException {
+        String java = new File(new File(System.getProperty("java.home"), "bin"), "java").getPath();
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                Main.class.getName(), lirPath).start();
+
+        /* the error stream is read aside so a full pipe can't block the child */
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        Thread errorReader = new Thread(() -> copyStream(process.getErrorStream(), errors));
+        errorReader.start();
+
+        copyStream(process.getInputStream(), System.out);
+        errorReader.join();
+        process.waitFor();
+
+        System.out.flush();
+        errors.writeTo(System.err);
+        System.err.flush();
+    }
+
+    private static void copyStream(InputStream input, OutputStream output) {
+        byte[] buffer = new byte[8192];
+        int length;
+
+        try (InputStream stream = input) {
+            while ((length = stream.read(buffer)) != -1) {
+                output.write(buffer, 0, length);
+            }
+        } catch (IOException ex) {
+            /* the child exited */
+        }
+    }
+
+    /**
+     * Parse the program file
+     * @param programPath the program file path
+     * @return the program, <code>null</code> if the file couldn't be parsed
+     */
+    static Program createAST(String programPath) {
         FileReader txtFile = null;
         Symbol textParseSymbol = null;
 
@@ -157,7 +480,32 @@ public class Compiler {
         return null;
     }
 
-    private ICClass addLibrary(String libraryPath) {
+    /**
+     * Get the library class, parsing the library signature file only if it isn't cached
+     * @param libraryPath the -L argument holding the library file path
+     * @param cacheDirectory the directory of the on-disk library cache, <code>null</code> to cache in memory only
+     * @return the library class, <code>null</code> if the file couldn't be parsed
+     */
+    static ICClass addLibrary(String libraryPath, File cacheDirectory) {
+        ICClass library = LibraryCache.lookup(libraryPath.substring(2), cacheDirectory);
+
+        if (library == null) {
+            library = parseLibrary(libraryPath);
+
+            if (library != null) {
+                LibraryCache.store(libraryPath.substring(2), library, cacheDirectory);
+            }
+        }
+
+        return library;
+    }
+
+    /**
+     * Parse the library signature file
+     * @param libraryPath the -L argument holding the library file path
+     * @return the library class, <code>null</code> if the file couldn't be parsed
+     */
+    private static ICClass parseLibrary(String libraryPath) {
         FileReader libFile = null;
         Symbol libParseSymbol = null;
 
@@ -58,11 +58,12 @@ public class CompilerUtils {
     /**
      * Convert AST type to Semantic type
      * @param uType the UserType node
+     * @param typeTable the type table of the compilation
      * @return new object as Semantic Type
      */
-	public static Type userTypeToMyType(UserType uType) {
+	public static Type userTypeToMyType(UserType uType, TypeTable typeTable) {
 		String typeName = uType.getName();
-		Type userDefType = TypeTable.getClassType(typeName);
+		Type userDefType = typeTable.getClassType(typeName);
 		Type convertedType;
 		
 		if (uType.getDimension() > 0) {
@@ -0,0 +1,254 @@
+package IC;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import IC.AST.Field;
+import IC.AST.Formal;
+import IC.AST.ICClass;
+import IC.AST.LibraryMethod;
+import IC.AST.Method;
+import IC.AST.PrimitiveType;
+import IC.AST.Type;
+import IC.AST.UserType;
+
+/**
+ * LibraryCache class - a cache of parsed library signature files.
+ * A parsed library is kept in memory for the lifetime of the JVM, keyed by the
+ * path of the library file and valid while the file keeps its modification time
+ * and size. Every lookup returns a copy of the library class, so compilations
+ * never share nodes. The on-disk cache is used only when a directory is given,
+ * its entries are the library signatures in a compact binary form, keyed by a
+ * hash of the library file.
+ */
+public class LibraryCache {
+
+    /**
+     * The version of the on-disk entries, change it whenever their format changes
+     */
+    public static final String FORMAT_VERSION = "2";
+
+    private static final String ENTRY_EXTENSION = ".lib";
+
+    private static final Map<String, Entry> memory = new ConcurrentHashMap<>();
+
+    /**
+     * Find a parsed library
+     * @param libraryPath the path of the library file
+     * @param directory the directory of the on-disk cache, <code>null</code> to use the memory only
+     * @return a copy of the library class, <code>null</code> if it isn't cached
+     */
+    public static ICClass lookup(String libraryPath, File directory) {
+        File libraryFile = new File(libraryPath);
+        Entry entry = memory.get(libraryFile.getAbsolutePath());
+
+        if (entry != null && entry.matches(libraryFile)) {
+            return copy(entry.library);
+        }
+
+        if (directory == null) {
+            return null;
+        }
+
+        try {
+            File entryFile = new File(directory, key(libraryFile) + ENTRY_EXTENSION);
+
+            if (!entryFile.isFile()) {
+                return null;
+            }
+
+            ICClass library;
+
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(entryFile)))) {
+                library = readClass(in);
+            }
+
+            memory.put(libraryFile.getAbsolutePath(), new Entry(libraryFile, library));
+            return copy(library);
+        } catch (IOException | IllegalArgumentException ex) {
+            /* a missing file or a stale entry, the library is parsed again */
+            return null;
+        }
+    }
+
+    /**
+     * Store a freshly parsed library
+     * @param libraryPath the path of the library file
+     * @param library the parsed library class, the cache keeps a copy of it
+     * @param directory the directory of the on-disk cache, <code>null</code> to use the memory only
+     */
+    public static void store(String libraryPath, ICClass library, File directory) {
+        File libraryFile = new File(libraryPath);
+        memory.put(libraryFile.getAbsolutePath(), new Entry(libraryFile, copy(library)));
+
+        if (directory == null) {
+            return;
+        }
+
+        try {
+            String key = key(libraryFile);
+            final boolean b = !directory.exists() && directory.mkdirs();
+
+            File tempFile = File.createTempFile(key, ".tmp", directory);
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) {
+                writeClass(out, library);
+            }
+
+            Files.move(tempFile.toPath(), new File(directory, key + ENTRY_EXTENSION).toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            System.err.println("Library cache: failed to store " + libraryPath + " " + ex.getMessage());
+        }
+    }
+
+    private static String key(File libraryFile) throws IOException {
+        MessageDigest digest;
+
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IOException(ex);
+        }
+
+        digest.update(FORMAT_VERSION.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(Files.readAllBytes(libraryFile.toPath()));
+
+        StringBuilder key = new StringBuilder();
+        for (byte b : digest.digest()) {
+            key.append(String.format("%02x", b));
+        }
+
+        return key.toString();
+    }
+
+    /**
+     * Copy a library class, the library grammar has only library methods
+     */
+    private static ICClass copy(ICClass library) {
+        List<Method> methods = new ArrayList<>();
+
+        for (Method method : library.getMethods()) {
+            List<Formal> formals = new ArrayList<>();
+
+            for (Formal formal : method.getFormals()) {
+                formals.add(new Formal(copy(formal.getType()), formal.getName()));
+            }
+
+            methods.add(new LibraryMethod(copy(method.getType()), method.getName(), formals));
+        }
+
+        return new ICClass(library.getLine(), library.getName(), new ArrayList<Field>(), methods);
+    }
+
+    private static Type copy(Type type) {
+        Type copy;
+
+        if (type instanceof PrimitiveType) {
+            copy = new PrimitiveType(type.getLine(), ((PrimitiveType) type).getType());
+        } else {
+            copy = new UserType(type.getLine(), type.getName());
+        }
+
+        for (int i = 0; i < type.getDimension(); i++) {
+            copy.incrementDimension();
+        }
+
+        return copy;
+    }
+
+    private static void writeClass(DataOutputStream out, ICClass library) throws IOException {
+        out.writeInt(library.getLine());
+        out.writeUTF(library.getName());
+        out.writeInt(library.getMethods().size());
+
+        for (Method method : library.getMethods()) {
+            writeType(out, method.getType());
+            out.writeUTF(method.getName());
+            out.writeInt(method.getFormals().size());
+
+            for (Formal formal : method.getFormals()) {
+                writeType(out, formal.getType());
+                out.writeUTF(formal.getName());
+            }
+        }
+    }
+
+    private static void writeType(DataOutputStream out, Type type) throws IOException {
+        out.writeInt(type.getLine());
+        out.writeBoolean(type instanceof PrimitiveType);
+        out.writeUTF(type instanceof PrimitiveType ? ((PrimitiveType) type).getType().name() : type.getName());
+        out.writeInt(type.getDimension());
+    }
+
+    private static ICClass readClass(DataInputStream in) throws IOException {
+        int line = in.readInt();
+        String name = in.readUTF();
+        int methodsCount = in.readInt();
+        List<Method> methods = new ArrayList<>();
+
+        for (int i = 0; i < methodsCount; i++) {
+            Type type = readType(in);
+            String methodName = in.readUTF();
+            int formalsCount = in.readInt();
+            List<Formal> formals = new ArrayList<>();
+
+            for (int j = 0; j < formalsCount; j++) {
+                Type formalType = readType(in);
+                formals.add(new Formal(formalType, in.readUTF()));
+            }
+
+            methods.add(new LibraryMethod(type, methodName, formals));
+        }
+
+        return new ICClass(line, name, new ArrayList<Field>(), methods);
+    }
+
+    private static Type readType(DataInputStream in) throws IOException {
+        int line = in.readInt();
+        boolean primitive = in.readBoolean();
+        String name = in.readUTF();
+        Type type = primitive ? new PrimitiveType(line, DataTypes.valueOf(name)) : new UserType(line, name);
+
+        for (int dimension = in.readInt(); dimension > 0; dimension--) {
+            type.incrementDimension();
+        }
+
+        return type;
+    }
+
+    /**
+     * A parsed library in memory, with the modification time and size of its file when it was parsed
+     */
+    private static class Entry {
+
+        private final long modified;
+        private final long length;
+        private final ICClass library;
+
+        Entry(File libraryFile, ICClass library) {
+            this.modified = libraryFile.lastModified();
+            this.length = libraryFile.length();
+            this.library = library;
+        }
+
+        boolean matches(File libraryFile) {
+            return libraryFile.lastModified() == modified && libraryFile.length() == length;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package IC.Lir;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BasicBlock class - a sequence of LIR instructions that is entered only at
+ * its first instruction and left only after its last one
+ */
+public class BasicBlock {
+
+    private final int id;
+    private final List<LirInstruction> instructions;
+    private final List<BasicBlock> successors;
+    private final List<BasicBlock> predecessors;
+
+    public BasicBlock(int id) {
+        this.id = id;
+        this.instructions = new ArrayList<>();
+        this.successors = new ArrayList<>();
+        this.predecessors = new ArrayList<>();
+    }
+
+    /**
+     * Split code into basic blocks and link them into a control flow graph.
+     * Jumps to labels outside of the code, e.g. <code>_error_exit</code>, have no successor
+     * @param instructions the code, a method or an entire program
+     * @return the blocks in the code order
+     */
+    public static List<BasicBlock> build(List<LirInstruction> instructions) {
+        List<BasicBlock> blocks = new ArrayList<>();
+        Map<String, BasicBlock> labels = new HashMap<>();
+        BasicBlock current = null;
+
+        for (LirInstruction instruction : instructions) {
+            if (current == null || instruction.isLabel() && !current.getInstructions().isEmpty()) {
+                current = new BasicBlock(blocks.size());
+                blocks.add(current);
+            }
+
+            if (instruction.isLabel()) {
+                labels.put(instruction.getLabel(), current);
+            }
+
+            current.addInstruction(instruction);
+
+            if (instruction.getOpcode().isJump() || instruction.getOpcode() == LirOpcode.RETURN) {
+                current = null;
+            }
+        }
+
+        for (int i = 0; i < blocks.size(); i++) {
+            BasicBlock block = blocks.get(i);
+            LirInstruction last = block.getLastInstruction();
+
+            if (last.getOpcode().isJump() && labels.containsKey(last.getLabel())) {
+                block.addSuccessor(labels.get(last.getLabel()));
+            }
+
+            if (!last.getOpcode().endsBlock() && i + 1 < blocks.size()) {
+                block.addSuccessor(blocks.get(i + 1));
+            }
+        }
+
+        return blocks;
+    }
+
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     * Get the label that starts the block
+     * @return the label name, <code>null</code> if the block isn't labeled
+     */
+    public String getLabel() {
+        return !instructions.isEmpty() && instructions.get(0).isLabel() ? instructions.get(0).getLabel() : null;
+    }
+
+    public List<LirInstruction> getInstructions() {
+        return this.instructions;
+    }
+
+    public LirInstruction getLastInstruction() {
+        return instructions.isEmpty() ? null : instructions.get(instructions.size() - 1);
+    }
+
+    public List<BasicBlock> getSuccessors() {
+        return this.successors;
+    }
+
+    public List<BasicBlock> getPredecessors() {
+        return this.predecessors;
+    }
+
+    void addInstruction(LirInstruction instruction) {
+        instructions.add(instruction);
+    }
+
+    void addSuccessor(BasicBlock successor) {
+        if (!successors.contains(successor)) {
+            successors.add(successor);
+            successor.predecessors.add(this);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "B" + id + (getLabel() != null ? " (" + getLabel() + ")" : "");
+    }
+}
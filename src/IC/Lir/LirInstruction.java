@@ -0,0 +1,210 @@
+package IC.Lir;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LirInstruction class - a single LIR instruction or label.
+ * Operands are kept in the LIR order, sources first and the destination last.
+ */
+public class LirInstruction {
+
+    private final LirOpcode opcode;
+    private final List<LirOperand> operands;
+    private final String comment;
+
+    /**
+     * The text of a <code>RAW</code> instruction, that isn't part of the instruction set
+     */
+    private final String text;
+
+    private LirInstruction(LirOpcode opcode, List<LirOperand> operands, String comment, String text) {
+        this.opcode = opcode;
+        this.operands = Collections.unmodifiableList(operands);
+        this.comment = comment;
+        this.text = text;
+    }
+
+    public LirInstruction(LirOpcode opcode, LirOperand... operands) {
+        this(opcode, new ArrayList<>(Arrays.asList(operands)), null, null);
+    }
+
+    public LirInstruction(LirOpcode opcode, List<LirOperand> operands) {
+        this(opcode, new ArrayList<>(operands), null, null);
+    }
+
+    public static LirInstruction label(String name) {
+        return new LirInstruction(LirOpcode.LABEL, LirOperand.label(name));
+    }
+
+    /**
+     * Create a comment line, e.g. the "# main in" header
+     * @param text the comment text, without the leading <code>#</code>
+     * @return the comment line
+     */
+    public static LirInstruction comment(String text) {
+        return new LirInstruction(LirOpcode.RAW, new ArrayList<>(), null, "# " + text);
+    }
+
+    public LirOpcode getOpcode() {
+        return this.opcode;
+    }
+
+    public List<LirOperand> getOperands() {
+        return this.operands;
+    }
+
+    public LirOperand getOperand(int index) {
+        return this.operands.get(index);
+    }
+
+    /**
+     * Get the destination operand of the instruction, the last one
+     * @return the destination, <code>null</code> if the instruction has no operands
+     */
+    public LirOperand getDestination() {
+        return operands.isEmpty() ? null : operands.get(operands.size() - 1);
+    }
+
+    /**
+     * Get the register the instruction writes into
+     * @return the register name, <code>null</code> if the instruction doesn't write a register,
+     * e.g. a store into a field or a call into <code>Rdummy</code>
+     */
+    public String getDefinedRegister() {
+        if (!opcode.writesDestination() || operands.isEmpty()) {
+            return null;
+        }
+
+        LirOperand destination = getDestination();
+        return destination.isRegister() && !destination.isDummy() ? destination.getName() : null;
+    }
+
+    /**
+     * Get the registers the instruction reads, including the registers
+     * in the address of a store
+     * @return the register names, in the operands order
+     */
+    public List<String> getUsedRegisters() {
+        List<String> registers = new ArrayList<>();
+        boolean skipDestination = getDefinedRegister() != null && !opcode.readsDestination();
+
+        for (int i = 0; i < operands.size(); i++) {
+            if (!(skipDestination && i == operands.size() - 1)) {
+                operands.get(i).collectRegisters(registers);
+            }
+        }
+
+        return registers;
+    }
+
+    /**
+     * Get the local or parameter the instruction writes into, only a <code>Move</code> writes one
+     * @return the local name, <code>null</code> if the instruction doesn't write a local
+     */
+    public String getDefinedLocal() {
+        return opcode == LirOpcode.MOVE && getDestination().isMemory() ? getDestination().getName() : null;
+    }
+
+    /**
+     * Get the locals, parameters and literals the instruction reads
+     * @return the names, in the operands order
+     */
+    public List<String> getUsedLocals() {
+        List<String> locals = new ArrayList<>();
+        boolean skipDestination = getDefinedLocal() != null;
+
+        for (int i = 0; i < operands.size(); i++) {
+            if (!(skipDestination && i == operands.size() - 1)) {
+                operands.get(i).collectLocals(locals);
+            }
+        }
+
+        return locals;
+    }
+
+    /**
+     * Whether the instruction only copies a register into another register
+     */
+    public boolean isRegisterMove() {
+        return opcode == LirOpcode.MOVE && operands.get(0).isRegister() && operands.get(1).isRegister()
+                && !operands.get(0).isDummy() && !operands.get(1).isDummy();
+    }
+
+    /**
+     * Create a copy of the instruction with its registers renamed
+     * @param names the new name of each register
+     * @return the new instruction
+     */
+    public LirInstruction renameRegisters(Map<String, String> names) {
+        List<LirOperand> renamed = new ArrayList<>();
+
+        for (LirOperand operand : operands) {
+            renamed.add(operand.renameRegisters(names));
+        }
+
+        return withOperands(renamed);
+    }
+
+    public String getComment() {
+        return this.comment;
+    }
+
+    public boolean isLabel() {
+        return opcode == LirOpcode.LABEL;
+    }
+
+    /**
+     * Get the name of the label the instruction defines or jumps to
+     * @return the label name, <code>null</code> if the instruction isn't a label or a jump
+     */
+    public String getLabel() {
+        return (isLabel() || opcode.isJump()) ? operands.get(0).getName() : null;
+    }
+
+    /**
+     * Create a copy of the instruction with a comment after it
+     * @param comment the comment text, without the leading <code>#</code>
+     * @return the new instruction
+     */
+    public LirInstruction withComment(String comment) {
+        return new LirInstruction(opcode, new ArrayList<>(operands), comment, text);
+    }
+
+    /**
+     * Create a copy of the instruction with other operands
+     * @param operands the new operands
+     * @return the new instruction
+     */
+    public LirInstruction withOperands(List<LirOperand> operands) {
+        return new LirInstruction(opcode, new ArrayList<>(operands), comment, text);
+    }
+
+    @Override
+    public String toString() {
+        if (opcode == LirOpcode.RAW) {
+            return text;
+        }
+
+        StringBuilder output = new StringBuilder();
+
+        if (isLabel()) {
+            output.append(operands.get(0)).append(":");
+        } else {
+            output.append(opcode.getMnemonic());
+
+            for (int i = 0; i < operands.size(); i++) {
+                output.append(i == 0 ? " " : ", ").append(operands.get(i));
+            }
+        }
+
+        if (comment != null) {
+            output.append("\t\t#").append(comment);
+        }
+
+        return output.toString();
+    }
+}
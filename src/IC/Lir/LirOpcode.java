@@ -0,0 +1,92 @@
+package IC.Lir;
+
+/**
+ * The LIR instruction set
+ */
+public enum LirOpcode {
+    MOVE("Move"),
+    MOVE_ARRAY("MoveArray"),
+    MOVE_FIELD("MoveField"),
+    ARRAY_LENGTH("ArrayLength"),
+    ADD("Add"),
+    SUB("Sub"),
+    MUL("Mul"),
+    DIV("Div"),
+    MOD("Mod"),
+    INC("Inc"),
+    DEC("Dec"),
+    NEG("Neg"),
+    NOT("Not"),
+    AND("And"),
+    OR("Or"),
+    XOR("Xor"),
+    COMPARE("Compare"),
+    JUMP("Jump"),
+    JUMP_TRUE("JumpTrue"),
+    JUMP_FALSE("JumpFalse"),
+    JUMP_G("JumpG"),
+    JUMP_GE("JumpGE"),
+    JUMP_L("JumpL"),
+    JUMP_LE("JumpLE"),
+    STATIC_CALL("StaticCall"),
+    VIRTUAL_CALL("VirtualCall"),
+    LIBRARY("Library"),
+    RETURN("Return"),
+    LABEL(null),
+    RAW(null);
+
+    private final String mnemonic;
+
+    LirOpcode(String mnemonic) {
+        this.mnemonic = mnemonic;
+    }
+
+    public String getMnemonic() {
+        return this.mnemonic;
+    }
+
+    public boolean isJump() {
+        return this == JUMP || isConditionalJump();
+    }
+
+    public boolean isConditionalJump() {
+        return this == JUMP_TRUE || this == JUMP_FALSE || this == JUMP_G || this == JUMP_GE || this == JUMP_L || this == JUMP_LE;
+    }
+
+    public boolean isCall() {
+        return this == STATIC_CALL || this == VIRTUAL_CALL || this == LIBRARY;
+    }
+
+    /**
+     * Whether the destination operand is read as well as written, e.g. <code>Add R1, R2</code>
+     */
+    public boolean readsDestination() {
+        switch (this) {
+            case ADD: case SUB: case MUL: case DIV: case MOD:
+            case AND: case OR: case XOR:
+            case INC: case DEC: case NEG: case NOT:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Whether the last operand is the destination the instruction writes into
+     */
+    public boolean writesDestination() {
+        return this != COMPARE && this != RETURN && this != LABEL && this != RAW && !isJump();
+    }
+
+    /**
+     * Whether the control never falls through to the next instruction
+     */
+    public boolean endsBlock() {
+        return this == JUMP || this == RETURN;
+    }
+
+    @Override
+    public String toString() {
+        return mnemonic != null ? mnemonic : name();
+    }
+}
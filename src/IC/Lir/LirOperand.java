@@ -0,0 +1,261 @@
+package IC.Lir;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LirOperand class - an operand of a LIR instruction.
+ * Operands are immutable, a pass that rewrites an operand creates a new one.
+ */
+public class LirOperand {
+
+    public enum Kind {
+        /** A register, e.g. <code>R3</code> or <code>Rdummy</code> */
+        REGISTER,
+        /** An integer constant */
+        IMMEDIATE,
+        /** A named memory location, a local variable, a parameter or a string literal */
+        MEMORY,
+        /** A code or data label, e.g. <code>_DV_A</code> */
+        LABEL,
+        /** An array element, <code>base[index]</code> */
+        ARRAY,
+        /** An object field, <code>base.offset</code> */
+        FIELD,
+        /** A call target with its arguments, <code>target(param=argument, ...)</code> */
+        CALL
+    }
+
+    private final Kind kind;
+    private final String name;
+    private final LirOperand base;
+    private final LirOperand index;
+    private final List<String> paramNames;
+    private final List<LirOperand> arguments;
+
+    private LirOperand(Kind kind, String name, LirOperand base, LirOperand index,
+                       List<String> paramNames, List<LirOperand> arguments) {
+        this.kind = kind;
+        this.name = name;
+        this.base = base;
+        this.index = index;
+        this.paramNames = paramNames;
+        this.arguments = arguments;
+    }
+
+    public static LirOperand register(String name) {
+        return new LirOperand(Kind.REGISTER, name, null, null, null, null);
+    }
+
+    public static LirOperand immediate(int value) {
+        return new LirOperand(Kind.IMMEDIATE, Integer.toString(value), null, null, null, null);
+    }
+
+    public static LirOperand memory(String name) {
+        return new LirOperand(Kind.MEMORY, name, null, null, null, null);
+    }
+
+    public static LirOperand label(String name) {
+        return new LirOperand(Kind.LABEL, name, null, null, null, null);
+    }
+
+    public static LirOperand array(LirOperand base, LirOperand index) {
+        return new LirOperand(Kind.ARRAY, null, base, index, null, null);
+    }
+
+    public static LirOperand field(LirOperand base, LirOperand offset) {
+        return new LirOperand(Kind.FIELD, null, base, offset, null, null);
+    }
+
+    /**
+     * Create a call operand
+     * @param target the called function, a label or a dispatch vector field
+     * @param paramNames the parameter names, <code>null</code> names for library calls
+     * @param arguments the arguments, in the same order as the names
+     * @return the call operand
+     */
+    public static LirOperand call(LirOperand target, List<String> paramNames, List<LirOperand> arguments) {
+        return new LirOperand(Kind.CALL, null, target, null,
+                Collections.unmodifiableList(new ArrayList<>(paramNames)),
+                Collections.unmodifiableList(new ArrayList<>(arguments)));
+    }
+
+    public Kind getKind() {
+        return this.kind;
+    }
+
+    /**
+     * Get the name of a register, memory location or label, or the text of a constant
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Get the base of an array element or a field, or the target of a call
+     */
+    public LirOperand getBase() {
+        return this.base;
+    }
+
+    /**
+     * Get the index of an array element or the offset of a field
+     */
+    public LirOperand getIndex() {
+        return this.index;
+    }
+
+    public List<String> getParamNames() {
+        return this.paramNames;
+    }
+
+    public List<LirOperand> getArguments() {
+        return this.arguments;
+    }
+
+    public boolean isRegister() {
+        return kind == Kind.REGISTER;
+    }
+
+    public boolean isImmediate() {
+        return kind == Kind.IMMEDIATE;
+    }
+
+    public boolean isMemory() {
+        return kind == Kind.MEMORY;
+    }
+
+    public boolean isLabel() {
+        return kind == Kind.LABEL;
+    }
+
+    /**
+     * Whether the operand is the <code>Rdummy</code> register, whose value is discarded
+     */
+    public boolean isDummy() {
+        return kind == Kind.REGISTER && name.equals("Rdummy");
+    }
+
+    /**
+     * Collect the registers the operand reads, including the ones nested in
+     * array elements, fields and call arguments. <code>Rdummy</code> is never read
+     * @param registers the list to add the register names to
+     */
+    public void collectRegisters(List<String> registers) {
+        switch (kind) {
+            case REGISTER:
+                if (!isDummy()) {
+                    registers.add(name);
+                }
+                break;
+            case ARRAY:
+            case FIELD:
+                base.collectRegisters(registers);
+                index.collectRegisters(registers);
+                break;
+            case CALL:
+                base.collectRegisters(registers);
+                for (LirOperand argument : arguments) {
+                    argument.collectRegisters(registers);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Collect the locals, parameters and literals the operand reads, including
+     * the ones nested in array elements, fields and call arguments
+     * @param locals the list to add the names to
+     */
+    public void collectLocals(List<String> locals) {
+        switch (kind) {
+            case MEMORY:
+                locals.add(name);
+                break;
+            case ARRAY:
+            case FIELD:
+                base.collectLocals(locals);
+                index.collectLocals(locals);
+                break;
+            case CALL:
+                base.collectLocals(locals);
+                for (LirOperand argument : arguments) {
+                    argument.collectLocals(locals);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Create a copy of the operand with its registers renamed
+     * @param names the new name of each register, registers that aren't mapped keep their name
+     * @return the renamed operand, the operand itself if it has no registers
+     */
+    public LirOperand renameRegisters(Map<String, String> names) {
+        switch (kind) {
+            case REGISTER:
+                return names.containsKey(name) ? register(names.get(name)) : this;
+            case ARRAY:
+                return array(base.renameRegisters(names), index.renameRegisters(names));
+            case FIELD:
+                return field(base.renameRegisters(names), index.renameRegisters(names));
+            case CALL:
+                List<LirOperand> renamed = new ArrayList<>();
+                for (LirOperand argument : arguments) {
+                    renamed.add(argument.renameRegisters(names));
+                }
+                return call(base.renameRegisters(names), paramNames, renamed);
+            default:
+                return this;
+        }
+    }
+
+    public int getValue() {
+        return Integer.parseInt(name);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof LirOperand && toString().equals(other.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return toString().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case ARRAY:
+                return base + "[" + index + "]";
+            case FIELD:
+                return base + "." + index;
+            case CALL:
+                StringBuilder output = new StringBuilder();
+                output.append(base).append("(");
+
+                for (int i = 0; i < arguments.size(); i++) {
+                    if (i > 0) {
+                        output.append(", ");
+                    }
+
+                    if (paramNames.get(i) != null) {
+                        output.append(paramNames.get(i)).append("=");
+                    }
+
+                    output.append(arguments.get(i));
+                }
+
+                return output.append(")").toString();
+            default:
+                return name;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package IC.Lir;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The destination of a translated program, written in order:
+ * the data section lines first and then the code
+ */
+public interface LirOutput {
+
+    /**
+     * Write data section lines, string literals or dispatch vectors
+     * @param lines the data lines, separated by line breaks
+     * @throws IOException if the output can't be written
+     */
+    void writeData(String lines) throws IOException;
+
+    /**
+     * Write code instructions
+     * @param instructions the instructions to write
+     * @throws IOException if the output can't be written
+     */
+    void writeInstructions(List<LirInstruction> instructions) throws IOException;
+}
@@ -0,0 +1,86 @@
+package IC.Lir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LirProgram class - a translated program, the data section lines
+ * (string literals and dispatch vectors) followed by the code instructions.
+ * The program is written as text only once, after every pass ran on it.
+ */
+public class LirProgram implements LirOutput {
+
+    private final List<String> data;
+    private List<LirInstruction> instructions;
+
+    public LirProgram() {
+        this.data = new ArrayList<>();
+        this.instructions = new ArrayList<>();
+    }
+
+    @Override
+    public void writeData(String lines) {
+        for (String line : lines.split("\n")) {
+            if (!line.trim().isEmpty()) {
+                data.add(line);
+            }
+        }
+    }
+
+    @Override
+    public void writeInstructions(List<LirInstruction> instructions) {
+        this.instructions.addAll(instructions);
+    }
+
+    public List<String> getData() {
+        return this.data;
+    }
+
+    public List<LirInstruction> getInstructions() {
+        return this.instructions;
+    }
+
+    /**
+     * Replace the code of the program, e.g. after an optimization pass
+     * @param instructions the new instructions
+     */
+    public void setInstructions(List<LirInstruction> instructions) {
+        this.instructions = instructions;
+    }
+
+    /**
+     * Split the code into basic blocks and link them into a control flow graph
+     * @return the blocks in the code order
+     */
+    public List<BasicBlock> getBasicBlocks() {
+        return BasicBlock.build(instructions);
+    }
+
+    /**
+     * Write the program as LIR text
+     * @param output the output to write into
+     * @throws IOException if the output can't be written
+     */
+    public void write(Writer output) throws IOException {
+        LirWriter writer = new LirWriter(output);
+        writer.writeData(data);
+        writer.writeInstructions(instructions);
+        writer.flush();
+    }
+
+    @Override
+    public String toString() {
+        StringWriter output = new StringWriter();
+
+        try {
+            write(output);
+        } catch (IOException ex) {
+            /* a StringWriter doesn't throw */
+        }
+
+        return output.toString();
+    }
+}
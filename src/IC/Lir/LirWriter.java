@@ -0,0 +1,58 @@
+package IC.Lir;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * LirWriter class - writes LIR text as it's produced, so a program
+ * never has to be held in memory as a whole
+ */
+public class LirWriter implements LirOutput {
+
+    private final Writer output;
+    private LirInstruction previous;
+
+    /**
+     * LirWriter constructor
+     * @param output the output to write into, buffered by the caller
+     */
+    public LirWriter(Writer output) {
+        this.output = output;
+        this.previous = null;
+    }
+
+    @Override
+    public void writeData(String lines) throws IOException {
+        for (String line : lines.split("\n")) {
+            if (!line.trim().isEmpty()) {
+                output.write(line);
+                output.write("\n");
+            }
+        }
+    }
+
+    public void writeData(List<String> lines) throws IOException {
+        for (String line : lines) {
+            writeData(line);
+        }
+    }
+
+    @Override
+    public void writeInstructions(List<LirInstruction> instructions) throws IOException {
+        for (LirInstruction instruction : instructions) {
+            /* separate the code that can't be reached by falling through, e.g. a new method */
+            if (instruction.isLabel() && (previous == null || previous.getOpcode().endsBlock())) {
+                output.write("\n");
+            }
+
+            output.write(instruction.toString());
+            output.write("\n");
+            previous = instruction;
+        }
+    }
+
+    public void flush() throws IOException {
+        output.flush();
+    }
+}
@@ -0,0 +1,190 @@
+package IC.Lir;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import microLIR.instructions.*;
+
+/**
+ * MicroLirBuilder class - builds the microLIR interpreter program straight
+ * from a translated program, so it can run without being written and parsed again
+ */
+public class MicroLirBuilder {
+
+    private MicroLirBuilder() {
+    }
+
+    /**
+     * Build the interpreter program
+     * @param program the translated program
+     * @return the interpreter program
+     */
+    public static Program build(LirProgram program) {
+        List<Object> data = new ArrayList<>();
+        List<Instruction> instructions = new ArrayList<>();
+
+        for (String line : program.getData()) {
+            data.add(buildData(line));
+        }
+
+        for (LirInstruction instruction : program.getInstructions()) {
+            if (instruction.getOpcode() != LirOpcode.RAW) {
+                instructions.add(buildInstruction(instruction));
+            }
+        }
+
+        return new Program(data, instructions);
+    }
+
+    private static Object buildData(String line) {
+        int colon = line.indexOf(':');
+        String name = line.substring(0, colon).trim();
+        String value = line.substring(colon + 1).trim();
+
+        if (value.startsWith("[")) {
+            List<String> labels = new ArrayList<>();
+
+            for (String label : value.substring(1, value.length() - 1).split(",")) {
+                if (!label.trim().isEmpty()) {
+                    labels.add(label.trim());
+                }
+            }
+
+            return new DispatchVector(new Label(name), labels);
+        }
+
+        /* the literal is passed with its quotes, as the interpreter's parser reads it */
+        return new StringLiteral(name, value);
+    }
+
+    private static Instruction buildInstruction(LirInstruction instruction) {
+        List<LirOperand> operands = instruction.getOperands();
+
+        switch (instruction.getOpcode()) {
+            case LABEL:
+                return new LabelInstr(new Label(instruction.getLabel()));
+            case MOVE:
+                return new MoveInstr(operand(operands.get(0)), operand(operands.get(1)));
+            case MOVE_ARRAY:
+                return buildMemoryMove(operands, LirOperand.Kind.ARRAY, true);
+            case MOVE_FIELD:
+                return buildMemoryMove(operands, LirOperand.Kind.FIELD, false);
+            case ARRAY_LENGTH:
+                return new ArrayLengthInstr(operand(operands.get(0)), register(operands.get(1)));
+            case ADD:
+                return new BinOpInstr(operand(operands.get(0)), operand(operands.get(1)), Operator.ADD);
+            case SUB:
+                return new BinOpInstr(operand(operands.get(0)), operand(operands.get(1)), Operator.SUB);
+            case MUL:
+                return new BinOpInstr(operand(operands.get(0)), operand(operands.get(1)), Operator.MUL);
+            case DIV:
+                return new BinOpInstr(operand(operands.get(0)), operand(operands.get(1)), Operator.DIV);
+            case MOD:
+                return new BinOpInstr(operand(operands.get(0)), operand(operands.get(1)), Operator.MOD);
+            case AND:
+                return new BinOpInstr(operand(operands.get(0)), operand(operands.get(1)), Operator.AND);
+            case OR:
+                return new BinOpInstr(operand(operands.get(0)), operand(operands.get(1)), Operator.OR);
+            case XOR:
+                return new BinOpInstr(operand(operands.get(0)), operand(operands.get(1)), Operator.XOR);
+            case INC:
+                return new UnaryOpInstr(operand(operands.get(0)), Operator.INC);
+            case DEC:
+                return new UnaryOpInstr(operand(operands.get(0)), Operator.DEC);
+            case NEG:
+                return new UnaryOpInstr(operand(operands.get(0)), Operator.NEG);
+            case NOT:
+                return new UnaryOpInstr(operand(operands.get(0)), Operator.NOT);
+            case COMPARE:
+                return new CompareInstr(operand(operands.get(0)), operand(operands.get(1)));
+            case JUMP:
+                return new JumpInstr(new Label(instruction.getLabel()));
+            case JUMP_TRUE:
+                return new CondJumpInstr(new Label(instruction.getLabel()), Cond.True);
+            case JUMP_FALSE:
+                return new CondJumpInstr(new Label(instruction.getLabel()), Cond.False);
+            case JUMP_G:
+                return new CondJumpInstr(new Label(instruction.getLabel()), Cond.G);
+            case JUMP_GE:
+                return new CondJumpInstr(new Label(instruction.getLabel()), Cond.GE);
+            case JUMP_L:
+                return new CondJumpInstr(new Label(instruction.getLabel()), Cond.L);
+            case JUMP_LE:
+                return new CondJumpInstr(new Label(instruction.getLabel()), Cond.LE);
+            case RETURN:
+                return new ReturnInstr(operand(operands.get(0)));
+            case STATIC_CALL:
+                return buildStaticCall(operands.get(0), register(operands.get(1)));
+            case VIRTUAL_CALL:
+                return buildVirtualCall(operands.get(0), register(operands.get(1)));
+            case LIBRARY:
+                return buildLibraryCall(operands.get(0), register(operands.get(1)));
+            default:
+                throw new IllegalArgumentException("Can't build the instruction " + instruction);
+        }
+    }
+
+    /**
+     * Build a <code>MoveArray</code> or <code>MoveField</code>, a load if the
+     * array element or field is the source and a store if it's the destination
+     */
+    private static Instruction buildMemoryMove(List<LirOperand> operands, LirOperand.Kind kind, boolean isArray) {
+        boolean isLoad = operands.get(0).getKind() == kind;
+        LirOperand location = isLoad ? operands.get(0) : operands.get(1);
+        LirOperand value = isLoad ? operands.get(1) : operands.get(0);
+
+        if (isArray) {
+            return new MoveArrayInstr(operand(location.getBase()), operand(location.getIndex()), operand(value), isLoad);
+        }
+
+        return new MoveFieldInstr(operand(location.getBase()), operand(location.getIndex()), operand(value), isLoad);
+    }
+
+    private static Instruction buildStaticCall(LirOperand call, Reg destination) {
+        return new StaticCall(new Label(call.getBase().getName()), paramOpPairs(call), destination);
+    }
+
+    private static Instruction buildVirtualCall(LirOperand call, Reg destination) {
+        LirOperand target = call.getBase();
+        return new VirtualCall(register(target.getBase()), operand(target.getIndex()), paramOpPairs(call), destination);
+    }
+
+    private static Instruction buildLibraryCall(LirOperand call, Reg destination) {
+        List<Operand> arguments = new ArrayList<>();
+
+        for (LirOperand argument : call.getArguments()) {
+            arguments.add(operand(argument));
+        }
+
+        return new LibraryCall(new Label(call.getBase().getName()), arguments, destination);
+    }
+
+    private static List<ParamOpPair> paramOpPairs(LirOperand call) {
+        List<ParamOpPair> pairs = new ArrayList<>();
+
+        for (int i = 0; i < call.getArguments().size(); i++) {
+            pairs.add(new ParamOpPair(new Memory(call.getParamNames().get(i)), operand(call.getArguments().get(i))));
+        }
+
+        return pairs;
+    }
+
+    private static Reg register(LirOperand operand) {
+        return new Reg(operand.getName());
+    }
+
+    private static Operand operand(LirOperand operand) {
+        switch (operand.getKind()) {
+            case REGISTER:
+                return new Reg(operand.getName());
+            case IMMEDIATE:
+                return new Immediate(operand.getValue());
+            case LABEL:
+                return new Label(operand.getName());
+            case MEMORY:
+                return new Memory(operand.getName());
+            default:
+                throw new IllegalArgumentException("Can't build the operand " + operand);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package IC;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * LirCache class - an on-disk cache of translated LIR programs.
+ * An entry is keyed by a hash of the program source, the library file,
+ * the compiler flags and the compiler version, and the cache directory
+ * is kept under a maximal size by evicting the least recently used entries.
+ */
+public class LirCache {
+
+    /**
+     * The version of the generated LIR, change it whenever the translation changes
+     */
+    public static final String COMPILER_VERSION = "8";
+
+    /**
+     * The default maximal size of the cache directory, in megabytes
+     */
+    public static final long DEFAULT_MAX_SIZE_MB = 64;
+
+    private static final String ENTRY_EXTENSION = ".lir";
+
+    private final File directory;
+    private final long maxSize;
+
+    /**
+     * LirCache constructor
+     * @param directory the cache directory, created if missing
+     * @param maxSize the maximal size of the cache directory in bytes
+     */
+    public LirCache(File directory, long maxSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+
+        final boolean b = !directory.exists() && directory.mkdirs();
+    }
+
+    /**
+     * Compute the cache key of a compilation
+     * @param programPath the path of the IC program
+     * @param libraryPaths the paths of the linked library files
+     * @param flags the compiler flags that affect the output
+     * @return the key as a hex string
+     * @throws IOException if a file can't be read
+     */
+    public String key(String programPath, List<String> libraryPaths, List<String> flags) throws IOException {
+        MessageDigest digest;
+
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IOException(ex);
+        }
+
+        List<String> sortedFlags = new ArrayList<>(flags);
+        Collections.sort(sortedFlags);
+
+        update(digest, COMPILER_VERSION.getBytes(StandardCharsets.UTF_8));
+        update(digest, sortedFlags.toString().getBytes(StandardCharsets.UTF_8));
+        update(digest, Files.readAllBytes(new File(programPath).toPath()));
+
+        for (String libraryPath : libraryPaths) {
+            update(digest, Files.readAllBytes(new File(libraryPath).toPath()));
+        }
+
+        StringBuilder key = new StringBuilder();
+        for (byte b : digest.digest()) {
+            key.append(String.format("%02x", b));
+        }
+
+        return key.toString();
+    }
+
+    /**
+     * Find a cached LIR program, and mark it as recently used
+     * @param key the cache key
+     * @return the cached LIR file, <code>null</code> if missing
+     */
+    public File lookup(String key) {
+        File entry = entryFile(key);
+
+        if (!entry.isFile()) {
+            return null;
+        }
+
+        final boolean b = entry.setLastModified(System.currentTimeMillis());
+        return entry;
+    }
+
+    /**
+     * Store a translated LIR program and evict old entries if the cache is too big
+     * @param key the cache key
+     * @param lirFile the translated LIR file
+     */
+    public void store(String key, File lirFile) {
+        File entry = entryFile(key);
+
+        try {
+            File tempFile = File.createTempFile(key, ".tmp", directory);
+            Files.copy(lirFile.toPath(), tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+            try {
+                Files.move(tempFile.toPath(), entry.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException ex) {
+                Files.move(tempFile.toPath(), entry.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            evict();
+        } catch (IOException ex) {
+            System.err.println("LIR cache: failed to store " + entry.getName() + " " + ex.getMessage());
+        }
+    }
+
+    private void evict() {
+        File[] entries = directory.listFiles((dir, name) -> name.endsWith(ENTRY_EXTENSION));
+
+        if (entries == null) {
+            return;
+        }
+
+        long size = 0;
+        for (File entry : entries) {
+            size += entry.length();
+        }
+
+        if (size <= maxSize) {
+            return;
+        }
+
+        Arrays.sort(entries, Comparator.comparingLong(File::lastModified));
+
+        for (File entry : entries) {
+            if (size <= maxSize) {
+                break;
+            }
+
+            long length = entry.length();
+            if (entry.delete()) {
+                size -= length;
+            }
+        }
+    }
+
+    private File entryFile(String key) {
+        return new File(directory, key + ENTRY_EXTENSION);
+    }
+
+    private static void update(MessageDigest digest, byte[] bytes) {
+        digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(bytes);
+    }
+}
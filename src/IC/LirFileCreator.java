@@ -1,6 +1,13 @@
 package IC;
 
-import java.io.*;
+import IC.LirTranslate.OptimizedTranslator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 
 /**
  * LirFileCreator class to generate the .lir file
@@ -9,38 +16,61 @@ import java.io.*;
 public class LirFileCreator {
 
     private final String lirFileName;
-    private final String lirOutput;
 
-    public LirFileCreator(String fileName, String output) {
-        String path = fileName.substring(0, fileName.lastIndexOf("\\") + 1);
-        String name = fileName.substring(fileName.lastIndexOf("\\") + 1, fileName.lastIndexOf("."));
-        File file = new File(path + "output\\");
+    public LirFileCreator(String fileName) {
+        File programFile = new File(fileName);
+        String name = programFile.getName();
+        File file = new File(programFile.getAbsoluteFile().getParentFile(), "output");
+
+        if (name.lastIndexOf(".") > 0) {
+            name = name.substring(0, name.lastIndexOf("."));
+        }
 
         final boolean b = !file.exists() && file.mkdirs();
 
-        this.lirFileName = path + "output\\" + name + ".lir";
-        this.lirOutput = output;
+        this.lirFileName = new File(file, name + ".lir").getPath();
     }
 
     public String getFilePath() {
         return this.lirFileName;
     }
 
-    public void createFile() {
-        Writer writer = null;
+    /**
+     * Create the .lir file as a copy of an already translated file
+     * @param lirFile the translated file, e.g. a <code>LirCache</code> entry
+     * @return whether the file was created
+     */
+    public boolean createFile(File lirFile) {
         try {
-            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(lirFileName), "utf-8"));
-            writer.write(lirOutput);
+            Files.copy(lirFile.toPath(), new File(lirFileName).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return true;
         } catch (IOException ex) {
-            System.err.println("Error writing to file");
-        } finally {
-            if (writer != null) {
-                try {
-                    writer.close();
-                } catch(Exception ex){
-                    /* ignore */
-                }
+            return false;
+        }
+    }
+
+    /**
+     * Create the .lir file while the program is translated, the lir text is
+     * written to a temporary file and moved into place once it's complete
+     * @param translator the translator of the program
+     * @throws Exception if the translation fails
+     */
+    public void createFile(OptimizedTranslator translator) throws Exception {
+        File lirFile = new File(lirFileName);
+        File tempFile = File.createTempFile(lirFile.getName(), ".tmp", lirFile.getParentFile());
+
+        try {
+            try (Writer writer = Files.newBufferedWriter(tempFile.toPath(), StandardCharsets.UTF_8)) {
+                translator.translate(writer);
             }
+
+            try {
+                Files.move(tempFile.toPath(), lirFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException ex) {
+                Files.move(tempFile.toPath(), lirFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            final boolean b = tempFile.exists() && tempFile.delete();
         }
     }
 }
\ No newline at end of file
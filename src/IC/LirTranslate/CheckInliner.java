@@ -0,0 +1,127 @@
+package IC.LirTranslate;
+
+import IC.Lir.LirInstruction;
+import IC.Lir.LirOpcode;
+import IC.Lir.LirOperand;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inlines the runtime checks of a translated method. A <code>StaticCall</code> of
+ * <code>__checkNullRef</code>, <code>__checkArrayAccess</code>, <code>__checkSize</code> or
+ * <code>__checkZero</code> becomes a <code>Compare</code> and a conditional jump to the
+ * error stub of the check, e.g. <code>__checkNullRef_err</code>, which the methods share.
+ * A check that passes costs two or four instructions instead of a call
+ */
+public class CheckInliner {
+
+    private final List<LirInstruction> instructions;
+
+    /**
+     * The number of the last register of the method, the inlined checks use new registers after it
+     */
+    private int lastRegister;
+
+    /**
+     * CheckInliner constructor
+     * @param instructions the instructions of a single method
+     */
+    public CheckInliner(List<LirInstruction> instructions) {
+        this.instructions = instructions;
+    }
+
+    /**
+     * Inline the checks of the method
+     * @return the instructions with the inlined checks
+     */
+    public List<LirInstruction> inline() {
+        List<LirInstruction> inlined = new ArrayList<>();
+        lastRegister = 0;
+
+        for (LirInstruction instruction : instructions) {
+            List<String> registers = instruction.getUsedRegisters();
+
+            if (instruction.getDefinedRegister() != null) {
+                registers.add(instruction.getDefinedRegister());
+            }
+
+            for (String register : registers) {
+                lastRegister = Math.max(lastRegister, Integer.parseInt(register.substring(1)));
+            }
+        }
+
+        for (LirInstruction instruction : instructions) {
+            if (!inlineCheck(instruction, inlined)) {
+                inlined.add(instruction);
+            }
+        }
+
+        return inlined;
+    }
+
+    /**
+     * Inline a check call
+     * @param code the list to add the inlined check to
+     * @return whether the instruction was a check, otherwise nothing was added
+     */
+    private boolean inlineCheck(LirInstruction instruction, List<LirInstruction> code) {
+        if (instruction.getOpcode() != LirOpcode.STATIC_CALL) {
+            return false;
+        }
+
+        LirOperand call = instruction.getOperand(0);
+        String check = call.getBase().getName();
+        LirOperand error = LirOperand.label(check + "_err");
+
+        switch (check) {
+            case "__checkNullRef":
+            case "__checkZero": {
+                LirOperand value = inRegister(call.getArguments().get(0), code);
+                code.add(new LirInstruction(LirOpcode.COMPARE, LirOperand.immediate(0), value));
+                code.add(new LirInstruction(LirOpcode.JUMP_TRUE, error));
+                return true;
+            }
+            case "__checkSize": {
+                LirOperand size = inRegister(call.getArguments().get(0), code);
+                code.add(new LirInstruction(LirOpcode.COMPARE, LirOperand.immediate(0), size));
+                code.add(new LirInstruction(LirOpcode.JUMP_L, error));
+                return true;
+            }
+            case "__checkArrayAccess": {
+                LirOperand array = call.getArguments().get(call.getParamNames().indexOf("a"));
+                LirOperand index = call.getArguments().get(call.getParamNames().indexOf("i"));
+                LirOperand length = newRegister();
+
+                code.add(new LirInstruction(LirOpcode.ARRAY_LENGTH, array.isMemory() ? array : inRegister(array, code), length));
+                index = inRegister(index, code);
+                code.add(new LirInstruction(LirOpcode.COMPARE, length, index));
+                code.add(new LirInstruction(LirOpcode.JUMP_GE, error));
+                code.add(new LirInstruction(LirOpcode.COMPARE, LirOperand.immediate(0), index));
+                code.add(new LirInstruction(LirOpcode.JUMP_L, error));
+                return true;
+            }
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Get an operand as a register, <code>Compare</code> reads its second operand from a register
+     * @param code the list to add the <code>Move</code> into a new register to, if it's needed
+     */
+    private LirOperand inRegister(LirOperand operand, List<LirInstruction> code) {
+        if (operand.isRegister()) {
+            return operand;
+        }
+
+        LirOperand register = newRegister();
+        code.add(new LirInstruction(LirOpcode.MOVE, operand, register));
+        return register;
+    }
+
+    private LirOperand newRegister() {
+        lastRegister += 1;
+        return LirOperand.register("R" + lastRegister);
+    }
+}
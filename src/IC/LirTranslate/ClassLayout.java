@@ -5,27 +5,38 @@ import IC.AST.ICClass;
 import IC.AST.Method;
 import IC.SemanticAnalysis.SymbolTable;
 import IC.TypeTable.MethodType;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 public class ClassLayout {
-	private Map<Method, Integer> methodToOffset;
-	private Map<Field, Integer> fieldToOffset;
+
+	/**
+	 * The dispatch vector, the method of each slot, and the slot of each method name
+	 */
+	private List<Method> methods;
+	private Map<String, Integer> methodToOffset;
+
+	/**
+	 * The fields in their offsets order, from offset 1, and the offset of each field name
+	 */
+	private List<Field> fields;
+	private Map<String, Integer> fieldToOffset;
 	private Map<String, Method> staticMethods;
 	
 	private String className;
 	private String superClassName;
-	private int methodOffset = 0;
-	private int fieldOffset = 1;
 	
 	public ClassLayout(String className) {
 		this.className = className;
 		this.superClassName = "";
 		
-		methodToOffset = new LinkedHashMap<>();
-		fieldToOffset = new LinkedHashMap<>();
+		methods = new ArrayList<>();
+		methodToOffset = new HashMap<>();
+		fields = new ArrayList<>();
+		fieldToOffset = new HashMap<>();
 		staticMethods = new LinkedHashMap<>();
 	}
 	
@@ -46,49 +57,38 @@ public class ClassLayout {
 	public void tableToLayout(ICClass icClass, ClassLayout superIcClassLayout) {
 		
 		superClassName = superIcClassLayout.className;
-		SymbolTable myTable = icClass.enclosingScope();
-		
-		for (Entry<Field, Integer> field : superIcClassLayout.fieldToOffset.entrySet()) {
-			insertField(field.getKey());
-		}
-		
-		for (Entry<Method, Integer> method : superIcClassLayout.methodToOffset.entrySet()) {
-			insertMethod(method.getKey());
-		}
-		
-		methodOffset = methodToOffset.size();
-		fieldOffset = fieldToOffset.size() + 1;
 
-		icClass.getFields().forEach(this::insertField);
-		
-		for (Method method : icClass.getMethods()) {
-			if (((MethodType)myTable.look(method.getName()).getType()).isVirtual()) {
-				insertMethod(method);
-			} else {
-				staticMethods.put(method.getName(), method);
-			}
-		}
+		/* the super class layout is the prefix of the layout, copied as is */
+		methods.addAll(superIcClassLayout.methods);
+		methodToOffset.putAll(superIcClassLayout.methodToOffset);
+		fields.addAll(superIcClassLayout.fields);
+		fieldToOffset.putAll(superIcClassLayout.fieldToOffset);
+
+		tableToLayout(icClass);
 	}
 	
 	private void insertField(Field field) {
-		fieldToOffset.put(field, fieldOffset++);
+		fields.add(field);
+		fieldToOffset.putIfAbsent(field.getName(), fields.size());
 	}
 	
+	/**
+	 * Insert a method into the dispatch vector, a method that overrides
+	 * an inherited one takes its slot
+	 */
 	private void insertMethod(Method method) {
-		int offset = methodOffset++;
-		for (Entry<Method, Integer> entry : methodToOffset.entrySet()) {
-			if (entry.getKey().getName().equals(method.getName())) {
-				offset = entry.getValue();
-				methodToOffset.remove(entry.getKey());
-				break;
-			}
+		Integer offset = methodToOffset.get(method.getName());
+
+		if (offset == null) {
+			methodToOffset.put(method.getName(), methods.size());
+			methods.add(method);
+		} else {
+			methods.set(offset, method);
 		}
-		
-		methodToOffset.put(method, offset);
 	}
 	
 	public int getSize() {
-		return fieldOffset * 4;
+		return (fields.size() + 1) * 4;
 	}
 	
 	public String getName() {
@@ -96,27 +96,11 @@ public class ClassLayout {
 	}
 	
 	public Integer getFieldIndex(String name) {
-		Integer index = null;
-		for (Entry<Field, Integer> entry : fieldToOffset.entrySet()) {
-			if (entry.getKey().getName().equals(name)) {
-				index = entry.getValue();
-				break;
-			}
-		}
-		
-		return index;
+		return fieldToOffset.get(name);
 	}
 	
 	public Integer getMethodIndex(String name) {
-		Integer index = null;
-		for (Entry<Method, Integer> entry : methodToOffset.entrySet()) {
-			if (entry.getKey().getName().equals(name)) {
-				index = entry.getValue();
-				break;
-			}
-		}
-		
-		return index;
+		return methodToOffset.get(name);
 	}
 	
 	public Method getStaticMethod(String name) {
@@ -124,34 +108,22 @@ public class ClassLayout {
 	}
 	
 	public Method getMethodSymbol(String name) {
-		Method row = null;
-		for (Entry<Method, Integer> entry : methodToOffset.entrySet()) {
-			if (entry.getKey().getName().equals(name)) {
-				row = entry.getKey();
-				break;
-			}
-		}
-		
-		return row;
+		Integer offset = methodToOffset.get(name);
+
+		return offset == null ? null : methods.get(offset);
 	}
 	
 	public String print() {
 		StringBuffer output = new StringBuffer();
-		
-		int i = methodToOffset.size();
-        Method currentMethod;
 
-		Iterator<Method> methodsSet = methodToOffset.keySet().iterator(); 
-		
-		while (methodsSet.hasNext() && i > 1) {
-            currentMethod = methodsSet.next();
-			output.append("_" + currentMethod.enclosingScope().getParentSymbolTable().getId() + "_" + currentMethod.getName() + ", ");
-			i--;
-		}
-		
-		if (methodsSet.hasNext()) {
-            currentMethod = methodsSet.next();
-            output.append("_" + currentMethod.enclosingScope().getParentSymbolTable().getId() + "_" + currentMethod.getName());
+		for (int i = 0; i < methods.size(); i++) {
+			Method method = methods.get(i);
+
+			if (i > 0) {
+				output.append(", ");
+			}
+
+			output.append("_" + method.enclosingScope().getParentSymbolTable().getId() + "_" + method.getName());
 		}
 		
 		return output.toString();
@@ -170,13 +142,13 @@ public class ClassLayout {
 		output.append("\n");
 
 		output.append("  > Fields:\n");
-		for (Entry<Field, Integer> entry : fieldToOffset.entrySet()) {
-			output.append("    - " + entry.getValue() + ". " + entry.getKey().getName() + "\n");
+		for (int i = 0; i < fields.size(); i++) {
+			output.append("    - " + (i + 1) + ". " + fields.get(i).getName() + "\n");
 		}
 
 		output.append("  > Method:\n");
-		for (Entry<Method, Integer> entry : methodToOffset.entrySet()) {
-			output.append("    - " + entry.getValue() + ". " + entry.getKey().getName() + "\n");
+		for (int i = 0; i < methods.size(); i++) {
+			output.append("    - " + i + ". " + methods.get(i).getName() + "\n");
 		}
 
 		return output.toString();
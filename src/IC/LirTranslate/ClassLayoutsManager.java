@@ -1,10 +1,18 @@
 package IC.LirTranslate;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import IC.AST.ICClass;
+import IC.SemanticAnalysis.SemanticError;
 
 public class ClassLayoutsManager {
 	
@@ -14,38 +22,61 @@ public class ClassLayoutsManager {
 		result = new LinkedHashMap<>();
 	}
 	
-	public void build(List<ICClass> classesFromVisitor) {
+	/**
+	 * Build the layouts of the classes, every class after its super class. The classes are
+	 * ordered by a single breadth first walk of the hierarchy from its roots
+	 * @param classesFromVisitor the classes of the program
+	 * @throws SemanticError if a super class is missing or the inheritance is cyclic
+	 */
+	public void build(List<ICClass> classesFromVisitor) throws SemanticError {
 		
-		int currentClassIndex = 0;
-		ICClass currentClass;
-		ClassLayout layout, parentLayout;
-		
-		while (currentClassIndex < classesFromVisitor.size()) {
-			currentClass = classesFromVisitor.get(currentClassIndex);
-			if (!currentClass.hasSuperClass()) {
-				layout = new ClassLayout(currentClass.getName());
-				layout.tableToLayout(currentClass);
-                result.put(currentClass.getName(), layout);
-				classesFromVisitor.remove(currentClassIndex);
+		Map<String, List<ICClass>> children = new HashMap<>();
+		Deque<ICClass> queue = new ArrayDeque<>();
+		Set<String> names = new HashSet<>();
+
+		for (ICClass icClass : classesFromVisitor) {
+			names.add(icClass.getName());
+		}
+
+		for (ICClass icClass : classesFromVisitor) {
+			if (!icClass.hasSuperClass()) {
+				queue.add(icClass);
+			} else if (!names.contains(icClass.getSuperClassName())) {
+				throw new SemanticError("Class " + icClass.getName() + " extends an undefined class "
+						+ icClass.getSuperClassName());
 			} else {
-				currentClassIndex += 1;
+				children.computeIfAbsent(icClass.getSuperClassName(), name -> new ArrayList<>()).add(icClass);
 			}
 		}
-		
-		currentClassIndex = 0;
-		while (classesFromVisitor.size() > 0) {
-			currentClass = classesFromVisitor.get(currentClassIndex);
-			
-			parentLayout = result.get(currentClass.getSuperClassName());
-			
-			if (parentLayout != null) {
-				layout = new ClassLayout(currentClass.getName());
-				layout.tableToLayout(currentClass, parentLayout);
-				result.put(currentClass.getName(), layout);
-				classesFromVisitor.remove(currentClassIndex);
+
+		ICClass currentClass;
+		ClassLayout layout;
+
+		while (!queue.isEmpty()) {
+			currentClass = queue.poll();
+			layout = new ClassLayout(currentClass.getName());
+
+			if (currentClass.hasSuperClass()) {
+				layout.tableToLayout(currentClass, result.get(currentClass.getSuperClassName()));
 			} else {
-				currentClassIndex += 1 % classesFromVisitor.size() - 1; 
+				layout.tableToLayout(currentClass);
 			}
+
+			result.put(currentClass.getName(), layout);
+			queue.addAll(children.getOrDefault(currentClass.getName(), Collections.emptyList()));
+		}
+
+		/* a class that wasn't reached from a root is on an inheritance cycle */
+		if (result.size() < classesFromVisitor.size()) {
+			List<String> cyclic = new ArrayList<>();
+
+			for (ICClass icClass : classesFromVisitor) {
+				if (!result.containsKey(icClass.getName())) {
+					cyclic.add(icClass.getName());
+				}
+			}
+
+			throw new SemanticError("Cyclic inheritance between the classes " + String.join(", ", cyclic));
 		}
 	}
 	
@@ -0,0 +1,488 @@
+package IC.LirTranslate;
+
+import IC.AST.*;
+import IC.BinaryOps;
+import IC.LiteralTypes;
+import IC.UnaryOps;
+
+import java.util.List;
+
+/**
+ * Constant folding visitor, runs on the type checked AST before the Sethi-Ullman
+ * weights are computed. Every visit of an expression returns the expression that
+ * replaces it: integer arithmetic with 32 bit overflow, boolean logic, comparisons
+ * and string concatenation of literals are computed, and identities such as
+ * x*1, x+0 and !!b are reduced to their operand.
+ * A division or modulo by a literal zero is kept, so it still fails at runtime.
+ */
+public class ConstantFolder implements Visitor {
+
+    private final ASTNode root;
+
+    public ConstantFolder(ASTNode root) {
+        this.root = root;
+    }
+
+    public void fold() {
+        root.accept(this);
+    }
+
+    @Override
+    public Object visit(Program program) {
+        program.getClasses().stream().filter(icClass -> !icClass.getName().equals("Library")).forEach(icClass -> {
+            icClass.accept(this);
+        });
+
+        return null;
+    }
+
+    @Override
+    public Object visit(ICClass icClass) {
+        for (Method method : icClass.getMethods()) {
+            method.accept(this);
+        }
+
+        return null;
+    }
+
+    @Override
+    public Object visit(Field field) {
+        return null;
+    }
+
+    @Override
+    public Object visit(VirtualMethod method) {
+        for (Statement stmt : method.getStatements()) {
+            stmt.accept(this);
+        }
+
+        return null;
+    }
+
+    @Override
+    public Object visit(StaticMethod method) {
+        for (Statement stmt : method.getStatements()) {
+            stmt.accept(this);
+        }
+
+        return null;
+    }
+
+    @Override
+    public Object visit(LibraryMethod method) {
+        return null;
+    }
+
+    @Override
+    public Object visit(Formal formal) {
+        return null;
+    }
+
+    @Override
+    public Object visit(PrimitiveType type) {
+        return null;
+    }
+
+    @Override
+    public Object visit(UserType type) {
+        return null;
+    }
+
+    @Override
+    public Object visit(Assignment assignment) {
+        assignment.getVariable().accept(this);
+        assignment.setAssignment(fold(assignment.getAssignment()));
+        return null;
+    }
+
+    @Override
+    public Object visit(CallStatement callStatement) {
+        callStatement.getCall().accept(this);
+        return null;
+    }
+
+    @Override
+    public Object visit(Return returnStatement) {
+        if (returnStatement.hasValue()) {
+            returnStatement.setValue(fold(returnStatement.getValue()));
+        }
+
+        return null;
+    }
+
+    @Override
+    public Object visit(If ifStatement) {
+        ifStatement.setCondition(fold(ifStatement.getCondition()));
+        ifStatement.getOperation().accept(this);
+
+        if (ifStatement.hasElse()) {
+            ifStatement.getElseOperation().accept(this);
+        }
+
+        return null;
+    }
+
+    @Override
+    public Object visit(While whileStatement) {
+        whileStatement.setCondition(fold(whileStatement.getCondition()));
+        whileStatement.getOperation().accept(this);
+        return null;
+    }
+
+    @Override
+    public Object visit(Break breakStatement) {
+        return null;
+    }
+
+    @Override
+    public Object visit(Continue continueStatement) {
+        return null;
+    }
+
+    @Override
+    public Object visit(StatementsBlock statementsBlock) {
+        for (Statement stmt : statementsBlock.getStatements()) {
+            stmt.accept(this);
+        }
+
+        return null;
+    }
+
+    @Override
+    public Object visit(LocalVariable localVariable) {
+        if (localVariable.hasInitValue()) {
+            localVariable.setInitValue(fold(localVariable.getInitValue()));
+        }
+
+        return null;
+    }
+
+    @Override
+    public Expression visit(VariableLocation location) {
+        /* an external location is an object, it never folds into another node */
+        if (location.isExternal()) {
+            location.getLocation().accept(this);
+        }
+
+        return location;
+    }
+
+    @Override
+    public Expression visit(ArrayLocation location) {
+        location.getArray().accept(this);
+        location.setIndex(fold(location.getIndex()));
+        return location;
+    }
+
+    @Override
+    public Expression visit(StaticCall call) {
+        foldArguments(call.getArguments());
+        return call;
+    }
+
+    @Override
+    public Expression visit(VirtualCall call) {
+        if (call.isExternal()) {
+            call.getLocation().accept(this);
+        }
+
+        foldArguments(call.getArguments());
+        return call;
+    }
+
+    @Override
+    public Expression visit(This thisExpression) {
+        return thisExpression;
+    }
+
+    @Override
+    public Expression visit(NewClass newClass) {
+        return newClass;
+    }
+
+    @Override
+    public Expression visit(NewArray newArray) {
+        newArray.setSize(fold(newArray.getSize()));
+        return newArray;
+    }
+
+    @Override
+    public Expression visit(Length length) {
+        length.getArray().accept(this);
+        return length;
+    }
+
+    @Override
+    public Expression visit(MathBinaryOp binaryOp) {
+        Expression first = fold(binaryOp.getFirstOperand());
+        Expression second = fold(binaryOp.getSecondOperand());
+        binaryOp.setFirstOperand(first);
+        binaryOp.setSecondOperand(second);
+
+        if (isLiteral(first, LiteralTypes.STRING) && isLiteral(second, LiteralTypes.STRING)) {
+            /* the literals keep their escape sequences, so the concatenation keeps them too */
+            return new Literal(binaryOp.getLine(), LiteralTypes.STRING,
+                    ((Literal) first).getValue().toString() + ((Literal) second).getValue());
+        }
+
+        Integer left = intValue(first);
+        Integer right = intValue(second);
+
+        if (left != null && right != null) {
+            Expression folded = null;
+
+            switch (binaryOp.getOperator()) {
+                case PLUS:
+                    folded = intLiteral(binaryOp.getLine(), left + right);
+                    break;
+                case MINUS:
+                    folded = intLiteral(binaryOp.getLine(), left - right);
+                    break;
+                case MULTIPLY:
+                    folded = intLiteral(binaryOp.getLine(), left * right);
+                    break;
+                case DIVIDE:
+                    folded = right != 0 ? intLiteral(binaryOp.getLine(), left / right) : null;
+                    break;
+                case MOD:
+                    folded = right != 0 ? intLiteral(binaryOp.getLine(), left % right) : null;
+                    break;
+                default:
+                    break;
+            }
+
+            return folded != null ? folded : binaryOp;
+        }
+
+        /* x+0, x-0, x*1, x/1, and 0+x, 1*x, the operand is still evaluated once */
+        switch (binaryOp.getOperator()) {
+            case PLUS:
+                if (isInt(right, 0)) {
+                    return first;
+                }
+                return isInt(left, 0) ? second : binaryOp;
+            case MINUS:
+                return isInt(right, 0) ? first : binaryOp;
+            case MULTIPLY:
+                if (isInt(right, 1)) {
+                    return first;
+                }
+                return isInt(left, 1) ? second : binaryOp;
+            case DIVIDE:
+                return isInt(right, 1) ? first : binaryOp;
+            default:
+                return binaryOp;
+        }
+    }
+
+    @Override
+    public Expression visit(LogicalBinaryOp binaryOp) {
+        Expression first = fold(binaryOp.getFirstOperand());
+        Expression second = fold(binaryOp.getSecondOperand());
+        binaryOp.setFirstOperand(first);
+        binaryOp.setSecondOperand(second);
+
+        Boolean leftBool = boolValue(first);
+        Boolean rightBool = boolValue(second);
+
+        switch (binaryOp.getOperator()) {
+            case LAND:
+                /* true && b is b, b && true is b. The translation evaluates both operands,
+                   so false && b is false only when b can't call or fail */
+                if (leftBool != null && (leftBool || isPure(second))) {
+                    return leftBool ? second : first;
+                }
+                return Boolean.TRUE.equals(rightBool) ? first : binaryOp;
+            case LOR:
+                if (leftBool != null && (!leftBool || isPure(second))) {
+                    return leftBool ? first : second;
+                }
+                return Boolean.FALSE.equals(rightBool) ? first : binaryOp;
+            case EQUAL:
+            case NEQUAL:
+                if (leftBool != null && rightBool != null) {
+                    return boolLiteral(binaryOp.getLine(), leftBool.equals(rightBool) == (binaryOp.getOperator() == BinaryOps.EQUAL));
+                }
+                break;
+            default:
+                break;
+        }
+
+        Integer left = intValue(first);
+        Integer right = intValue(second);
+
+        if (left == null || right == null) {
+            return binaryOp;
+        }
+
+        switch (binaryOp.getOperator()) {
+            case EQUAL:
+                return boolLiteral(binaryOp.getLine(), left.intValue() == right.intValue());
+            case NEQUAL:
+                return boolLiteral(binaryOp.getLine(), left.intValue() != right.intValue());
+            case LT:
+                return boolLiteral(binaryOp.getLine(), left < right);
+            case LTE:
+                return boolLiteral(binaryOp.getLine(), left <= right);
+            case GT:
+                return boolLiteral(binaryOp.getLine(), left > right);
+            case GTE:
+                return boolLiteral(binaryOp.getLine(), left >= right);
+            default:
+                return binaryOp;
+        }
+    }
+
+    @Override
+    public Expression visit(MathUnaryOp unaryOp) {
+        Expression operand = fold(unaryOp.getOperand());
+        unaryOp.setOperand(operand);
+
+        /* -literal is how a negative constant is written, it's folded only when it's a double negation */
+        if (operand instanceof MathUnaryOp) {
+            Integer value = intValue(operand);
+
+            if (value != null) {
+                return intLiteral(unaryOp.getLine(), -value);
+            }
+        }
+
+        if (isInt(intValue(operand), 0)) {
+            return operand;
+        }
+
+        return unaryOp;
+    }
+
+    @Override
+    public Expression visit(LogicalUnaryOp unaryOp) {
+        Expression operand = fold(unaryOp.getOperand());
+        unaryOp.setOperand(operand);
+
+        Boolean value = boolValue(operand);
+
+        if (value != null) {
+            return boolLiteral(unaryOp.getLine(), !value);
+        }
+
+        if (operand instanceof LogicalUnaryOp && ((LogicalUnaryOp) operand).getOperator() == UnaryOps.LNEG) {
+            return ((LogicalUnaryOp) operand).getOperand();
+        }
+
+        return unaryOp;
+    }
+
+    @Override
+    public Expression visit(Literal literal) {
+        return literal;
+    }
+
+    @Override
+    public Expression visit(ExpressionBlock expressionBlock) {
+        Expression expression = fold(expressionBlock.getExpression());
+        expressionBlock.setExpression(expression);
+
+        /* the parentheses of a constant don't matter anymore */
+        return intValue(expression) != null || expression instanceof Literal ? expression : expressionBlock;
+    }
+
+    @Override
+    public Object visit(FieldOrMethod fieldOrMethod) {
+        return null;
+    }
+
+    private Expression fold(Expression expression) {
+        return (Expression) expression.accept(this);
+    }
+
+    private void foldArguments(List<Expression> arguments) {
+        for (int i = 0; i < arguments.size(); i++) {
+            arguments.set(i, fold(arguments.get(i)));
+        }
+    }
+
+    private static boolean isLiteral(Expression expression, LiteralTypes type) {
+        return expression instanceof Literal && ((Literal) expression).getType() == type;
+    }
+
+    /**
+     * Check if evaluating an expression can't call a method or fail a runtime check
+     * @return <code>true</code> if the expression can be dropped
+     */
+    private static boolean isPure(Expression expression) {
+        if (expression instanceof Literal || expression instanceof This) {
+            return true;
+        }
+
+        if (expression instanceof VariableLocation) {
+            return !((VariableLocation) expression).isExternal();
+        }
+
+        if (expression instanceof ExpressionBlock) {
+            return isPure(((ExpressionBlock) expression).getExpression());
+        }
+
+        if (expression instanceof UnaryOp) {
+            return isPure(((UnaryOp) expression).getOperand());
+        }
+
+        if (expression instanceof BinaryOp) {
+            BinaryOp binaryOp = (BinaryOp) expression;
+
+            return binaryOp.getOperator() != BinaryOps.DIVIDE && binaryOp.getOperator() != BinaryOps.MOD
+                    && isPure(binaryOp.getFirstOperand()) && isPure(binaryOp.getSecondOperand());
+        }
+
+        return false;
+    }
+
+    private static boolean isInt(Integer value, int expected) {
+        return value != null && value == expected;
+    }
+
+    /**
+     * Get the value of an integer constant, a literal or a negated literal
+     * @return the value, <code>null</code> if the expression isn't an integer constant
+     */
+    private static Integer intValue(Expression expression) {
+        if (isLiteral(expression, LiteralTypes.INTEGER)) {
+            return (Integer) ((Literal) expression).getValue();
+        }
+
+        if (expression instanceof MathUnaryOp && ((MathUnaryOp) expression).getOperator() == UnaryOps.UMINUS) {
+            Integer value = intValue(((MathUnaryOp) expression).getOperand());
+            return value != null ? -value : null;
+        }
+
+        return null;
+    }
+
+    private static Boolean boolValue(Expression expression) {
+        if (isLiteral(expression, LiteralTypes.TRUE)) {
+            return true;
+        }
+
+        return isLiteral(expression, LiteralTypes.FALSE) ? false : null;
+    }
+
+    /**
+     * Create an integer constant. microLIR has no negative immediates, so a negative
+     * value is a negated literal, as in the source
+     * @return the constant, <code>null</code> for the minimal integer, it has no positive literal
+     */
+    private static Expression intLiteral(int line, int value) {
+        if (value >= 0) {
+            return new Literal(line, LiteralTypes.INTEGER, value);
+        }
+
+        if (value == Integer.MIN_VALUE) {
+            return null;
+        }
+
+        return new MathUnaryOp(UnaryOps.UMINUS, new Literal(line, LiteralTypes.INTEGER, -value));
+    }
+
+    private static Literal boolLiteral(int line, boolean value) {
+        return new Literal(line, value ? LiteralTypes.TRUE : LiteralTypes.FALSE);
+    }
+}
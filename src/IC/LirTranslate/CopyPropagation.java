@@ -0,0 +1,290 @@
+package IC.LirTranslate;
+
+import IC.Lir.BasicBlock;
+import IC.Lir.LirInstruction;
+import IC.Lir.LirOpcode;
+import IC.Lir.LirOperand;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Constant and copy propagation over the control flow graph of a translated method.
+ * A <code>Move</code> into a register or a local makes the destination a copy of its
+ * source until either of them is written again. The copies that hold on every path
+ * into an instruction are found by a forward dataflow analysis, then every read of a
+ * copy is replaced by its constant or source where microLIR accepts that operand,
+ * and a <code>Move</code> of a value into a location that already holds it is removed
+ */
+public class CopyPropagation {
+
+    private final List<LirInstruction> instructions;
+
+    /**
+     * CopyPropagation constructor
+     * @param instructions the instructions of a single method
+     */
+    public CopyPropagation(List<LirInstruction> instructions) {
+        this.instructions = instructions;
+    }
+
+    /**
+     * Propagate the constants and copies of the method
+     * @return the rewritten instructions
+     */
+    public List<LirInstruction> propagate() {
+        List<BasicBlock> blocks = BasicBlock.build(instructions);
+        List<Map<String, LirOperand>> blockOut = new ArrayList<>();
+
+        for (int i = 0; i < blocks.size(); i++) {
+            blockOut.add(null);
+        }
+
+        /* in = the copies every visited predecessor agrees on, a block that wasn't visited yet
+           doesn't restrict its successors. A block is visited again when its in set shrank */
+        Deque<BasicBlock> worklist = new ArrayDeque<>(blocks);
+        boolean[] queued = new boolean[blocks.size()];
+        Arrays.fill(queued, true);
+
+        while (!worklist.isEmpty()) {
+            BasicBlock block = worklist.poll();
+            queued[block.getId()] = false;
+
+            Map<String, LirOperand> copies = blockIn(block, blockOut);
+            transfer(block, copies, null);
+
+            if (!copies.equals(blockOut.get(block.getId()))) {
+                blockOut.set(block.getId(), copies);
+
+                for (BasicBlock successor : block.getSuccessors()) {
+                    if (!queued[successor.getId()]) {
+                        worklist.add(successor);
+                        queued[successor.getId()] = true;
+                    }
+                }
+            }
+        }
+
+        List<LirInstruction> propagated = new ArrayList<>();
+
+        for (BasicBlock block : blocks) {
+            transfer(block, blockIn(block, blockOut), propagated);
+        }
+
+        return propagated;
+    }
+
+    private static Map<String, LirOperand> blockIn(BasicBlock block, List<Map<String, LirOperand>> blockOut) {
+        Map<String, LirOperand> copies = null;
+
+        /* the entry block and unreachable blocks start with no copies */
+        if (block.getId() == 0 || block.getPredecessors().isEmpty()) {
+            return new HashMap<>();
+        }
+
+        for (BasicBlock predecessor : block.getPredecessors()) {
+            Map<String, LirOperand> out = blockOut.get(predecessor.getId());
+
+            if (out == null) {
+                continue;
+            }
+
+            if (copies == null) {
+                copies = new HashMap<>(out);
+            } else {
+                copies.entrySet().removeIf(copy -> !copy.getValue().equals(out.get(copy.getKey())));
+            }
+        }
+
+        return copies != null ? copies : new HashMap<>();
+    }
+
+    /**
+     * Run the instructions of a block over the copies that hold at its start
+     * @param copies the copies, updated to the copies that hold at the end of the block
+     * @param output the list to add the rewritten instructions to, <code>null</code> to only analyze
+     */
+    private static void transfer(BasicBlock block, Map<String, LirOperand> copies, List<LirInstruction> output) {
+        for (LirInstruction instruction : block.getInstructions()) {
+            LirInstruction rewritten = rewrite(instruction, copies);
+            LirOpcode opcode = rewritten.getOpcode();
+
+            if (opcode == LirOpcode.RAW && !rewritten.toString().trim().startsWith("#")) {
+                /* an instruction that isn't understood may write anything */
+                copies.clear();
+            }
+
+            String written = writtenLocation(rewritten);
+
+            if (written != null && opcode == LirOpcode.MOVE && isCopySource(rewritten.getOperand(0))) {
+                LirOperand source = rewritten.getOperand(0);
+
+                if (source.getName().equals(written) || source.equals(copies.get(written))) {
+                    /* the destination already holds the value */
+                    continue;
+                }
+
+                kill(copies, written);
+                copies.put(written, source);
+            } else if (written != null) {
+                kill(copies, written);
+            }
+
+            if (output != null) {
+                output.add(rewritten);
+            }
+        }
+    }
+
+    /**
+     * Forget the copies that a write into a location invalidates, the copy the
+     * location was and the copies of it
+     */
+    private static void kill(Map<String, LirOperand> copies, String location) {
+        copies.remove(location);
+
+        for (Iterator<LirOperand> it = copies.values().iterator(); it.hasNext(); ) {
+            LirOperand source = it.next();
+
+            if (!source.isImmediate() && source.getName().equals(location)) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Get the register or local an instruction writes into
+     * @return the location name, <code>null</code> if the instruction writes neither,
+     * e.g. a store into an array element
+     */
+    private static String writtenLocation(LirInstruction instruction) {
+        if (instruction.getDefinedRegister() != null) {
+            return instruction.getDefinedRegister();
+        }
+
+        return instruction.getDefinedLocal();
+    }
+
+    private static boolean isCopySource(LirOperand operand) {
+        return operand.isImmediate() || operand.isMemory() || operand.isRegister() && !operand.isDummy();
+    }
+
+    /**
+     * Replace the operands an instruction reads by the constants and sources they're copies of
+     * @return the rewritten instruction, the instruction itself if nothing was replaced
+     */
+    private static LirInstruction rewrite(LirInstruction instruction, Map<String, LirOperand> copies) {
+        if (copies.isEmpty()) {
+            return instruction;
+        }
+
+        List<LirOperand> operands = new ArrayList<>(instruction.getOperands());
+
+        switch (instruction.getOpcode()) {
+            case MOVE:
+                /* microLIR doesn't move a local into a local */
+                operands.set(0, replace(operands.get(0), copies, true, !operands.get(1).isMemory()));
+                break;
+            case MOVE_ARRAY:
+            case MOVE_FIELD:
+                if (operands.get(0).getKind() == LirOperand.Kind.ARRAY || operands.get(0).getKind() == LirOperand.Kind.FIELD) {
+                    operands.set(0, replaceAddress(operands.get(0), copies));
+                } else {
+                    operands.set(0, replace(operands.get(0), copies, true, false));
+                    operands.set(1, replaceAddress(operands.get(1), copies));
+                }
+                break;
+            case ARRAY_LENGTH:
+                operands.set(0, replace(operands.get(0), copies, false, true));
+                break;
+            case ADD: case SUB: case MUL: case DIV: case MOD:
+            case AND: case OR: case XOR:
+            case RETURN:
+                operands.set(0, replace(operands.get(0), copies, true, true));
+                break;
+            case COMPARE:
+                operands.set(0, replace(operands.get(0), copies, true, true));
+                operands.set(1, replace(operands.get(1), copies, false, false));
+                break;
+            case STATIC_CALL:
+            case VIRTUAL_CALL:
+            case LIBRARY:
+                operands.set(0, replaceCall(operands.get(0), copies));
+                break;
+            default:
+                return instruction;
+        }
+
+        /* the replacements return the operand itself when nothing was replaced */
+        for (int i = 0; i < operands.size(); i++) {
+            if (operands.get(i) != instruction.getOperand(i)) {
+                return instruction.withOperands(operands);
+            }
+        }
+
+        return instruction;
+    }
+
+    /**
+     * Replace a register or local by the value it's a copy of
+     * @param allowImmediate whether the position accepts a constant
+     * @param allowMemory whether the position accepts a local
+     * @return the replacement, the operand itself if it isn't a copy or the position doesn't accept its value
+     */
+    private static LirOperand replace(LirOperand operand, Map<String, LirOperand> copies,
+                                      boolean allowImmediate, boolean allowMemory) {
+        if (!operand.isRegister() && !operand.isMemory()) {
+            return operand;
+        }
+
+        LirOperand source = copies.get(operand.getName());
+
+        if (source == null || source.isImmediate() && !allowImmediate || source.isMemory() && !allowMemory) {
+            return operand;
+        }
+
+        return source;
+    }
+
+    /**
+     * Replace the registers of an array element or a field, the base stays a register
+     */
+    private static LirOperand replaceAddress(LirOperand operand, Map<String, LirOperand> copies) {
+        LirOperand base = replace(operand.getBase(), copies, false, false);
+        LirOperand index = operand.getIndex();
+
+        if (operand.getKind() == LirOperand.Kind.ARRAY) {
+            index = replace(index, copies, true, false);
+        }
+
+        if (base == operand.getBase() && index == operand.getIndex()) {
+            return operand;
+        }
+
+        return operand.getKind() == LirOperand.Kind.ARRAY ? LirOperand.array(base, index) : LirOperand.field(base, index);
+    }
+
+    private static LirOperand replaceCall(LirOperand call, Map<String, LirOperand> copies) {
+        List<LirOperand> arguments = new ArrayList<>();
+        boolean replaced = false;
+
+        for (LirOperand argument : call.getArguments()) {
+            arguments.add(replace(argument, copies, true, true));
+            replaced |= arguments.get(arguments.size() - 1) != argument;
+        }
+
+        LirOperand target = call.getBase();
+
+        if (target.getKind() == LirOperand.Kind.FIELD) {
+            target = replaceAddress(target, copies);
+        }
+
+        return replaced || target != call.getBase() ? LirOperand.call(target, call.getParamNames(), arguments) : call;
+    }
+}
@@ -0,0 +1,145 @@
+package IC.LirTranslate;
+
+import IC.Lir.BasicBlock;
+import IC.Lir.LirInstruction;
+import IC.Lir.LirOpcode;
+import IC.Lir.LirOperand;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Dead code elimination of a translated method. The blocks that can't be reached
+ * from the method entry are removed, and so are the jumps to the next instruction.
+ * Then, by a liveness analysis of the registers and the locals, every instruction
+ * that only computes a value nobody reads is removed, until none is left.
+ * A call is never removed, a call whose result isn't read returns into <code>Rdummy</code>
+ */
+public class DeadCodeElimination {
+
+    private final List<LirInstruction> instructions;
+
+    /**
+     * The number of removed instructions
+     */
+    private int removedCount;
+
+    /**
+     * DeadCodeElimination constructor
+     * @param instructions the instructions of a single method
+     */
+    public DeadCodeElimination(List<LirInstruction> instructions) {
+        this.instructions = instructions;
+    }
+
+    /**
+     * Eliminate the dead code of the method
+     * @return the instructions that are left
+     */
+    public List<LirInstruction> eliminate() {
+        List<LirInstruction> code = removeJumpsToNext(removeUnreachable(instructions));
+        int size;
+
+        /* a removed instruction may have been the only reader of another one */
+        do {
+            size = code.size();
+            code = removeDeadStores(code);
+        } while (code.size() < size);
+
+        removedCount = instructions.size() - code.size();
+        return code;
+    }
+
+    public int getRemovedCount() {
+        return this.removedCount;
+    }
+
+    private static List<LirInstruction> removeUnreachable(List<LirInstruction> code) {
+        List<BasicBlock> blocks = BasicBlock.build(code);
+
+        if (blocks.isEmpty()) {
+            return code;
+        }
+
+        boolean[] reachable = new boolean[blocks.size()];
+        Deque<BasicBlock> worklist = new ArrayDeque<>();
+
+        reachable[0] = true;
+        worklist.add(blocks.get(0));
+
+        while (!worklist.isEmpty()) {
+            for (BasicBlock successor : worklist.poll().getSuccessors()) {
+                if (!reachable[successor.getId()]) {
+                    reachable[successor.getId()] = true;
+                    worklist.add(successor);
+                }
+            }
+        }
+
+        List<LirInstruction> reached = new ArrayList<>();
+
+        for (BasicBlock block : blocks) {
+            if (reachable[block.getId()]) {
+                reached.addAll(block.getInstructions());
+            }
+        }
+
+        return reached;
+    }
+
+    /**
+     * Remove the jumps to the label right after them, comment lines in between are skipped
+     */
+    private static List<LirInstruction> removeJumpsToNext(List<LirInstruction> code) {
+        List<LirInstruction> kept = new ArrayList<>();
+
+        for (int i = 0; i < code.size(); i++) {
+            LirInstruction instruction = code.get(i);
+
+            if (instruction.getOpcode() == LirOpcode.JUMP) {
+                int next = i + 1;
+
+                while (next < code.size() && code.get(next).getOpcode() == LirOpcode.RAW) {
+                    next += 1;
+                }
+
+                if (next < code.size() && code.get(next).isLabel()
+                        && code.get(next).getLabel().equals(instruction.getLabel())) {
+                    continue;
+                }
+            }
+
+            kept.add(instruction);
+        }
+
+        return kept;
+    }
+
+    private static List<LirInstruction> removeDeadStores(List<LirInstruction> code) {
+        LivenessAnalysis liveness = new LivenessAnalysis(code, true);
+        liveness.analyze();
+
+        List<LirInstruction> kept = new ArrayList<>();
+
+        for (int i = 0; i < code.size(); i++) {
+            LirInstruction instruction = code.get(i);
+            int defined = liveness.getDefined(i);
+
+            if (defined >= 0 && !liveness.getLiveOut(i).get(defined)) {
+                if (!instruction.getOpcode().isCall()) {
+                    continue;
+                }
+
+                List<LirOperand> operands = new ArrayList<>(instruction.getOperands());
+                operands.set(operands.size() - 1, LirOperand.register("Rdummy"));
+                instruction = instruction.withOperands(operands);
+            }
+
+            kept.add(instruction);
+        }
+
+        return kept;
+    }
+}
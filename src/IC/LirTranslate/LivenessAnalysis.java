@@ -1,473 +1,238 @@
 package IC.LirTranslate;
 
-import IC.AST.*;
-
-import java.util.Set;
+import IC.Lir.BasicBlock;
+import IC.Lir.LirInstruction;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
-import java.util.HashSet;
+import java.util.Map;
 
 /**
- * Liveness Analisys vistor, in order to produce
- * interference graph and create registers plans
+ * Liveness Analysis of the registers of a translated method, in order to
+ * produce the interference graph and create the registers plan.
+ * The analysis runs on the control flow graph of the method until a fixpoint,
+ * so loops, branches, breaks and continues are taken into account.
+ * Registers get dense ids and the live sets are bit vectors indexed by them.
+ * The locals and parameters can be analyzed along with the registers, they get ids too
  */
-public class LivenessAnalysis implements PropagatingVisitor<Set<String>, Set<String>> {
-
-    private final ASTNode root;
-
-    public LivenessAnalysis(ASTNode root) {
-        this.root = root;
+public class LivenessAnalysis {
+
+    private final List<LirInstruction> instructions;
+
+    /**
+     * Whether the locals are analyzed along with the registers
+     */
+    private final boolean withLocals;
+
+    /**
+     * The id of each register, and the register of each id
+     */
+    private final Map<String, Integer> ids;
+    private final List<String> registers;
+
+    /**
+     * The registers each instruction reads, and the register it writes or -1
+     */
+    private int[][] uses;
+    private int[] defs;
+
+    /**
+     * The registers live after each instruction
+     */
+    private BitSet[] liveOut;
+
+    /**
+     * LivenessAnalysis constructor
+     * @param instructions the instructions of a single method
+     */
+    public LivenessAnalysis(List<LirInstruction> instructions) {
+        this(instructions, false);
+    }
+
+    /**
+     * LivenessAnalysis constructor
+     * @param instructions the instructions of a single method
+     * @param withLocals whether the locals and parameters are analyzed along with the registers
+     */
+    public LivenessAnalysis(List<LirInstruction> instructions, boolean withLocals) {
+        this.instructions = instructions;
+        this.withLocals = withLocals;
+        this.ids = new HashMap<>();
+        this.registers = new ArrayList<>();
     }
 
     public void analyze() {
-
-        try {
-            root.accept(this, new HashSet<>());
-        } catch (Exception ex) {
-            ex.printStackTrace();
-            System.err.println("Error: " + ex.getMessage());
-        }
-    }
-
-
-    @Override
-    public Set<String> visit(Program program, Set<String> outLive) throws Exception {
-        Set<String> inLive = outLive;
-
-        for (ICClass icClass : program.getClasses()) {
-            if (!icClass.getName().equals("Library")) {
-                inLive.addAll(icClass.accept(this, inLive));
+        numberRegisters();
+
+        List<BasicBlock> blocks = BasicBlock.build(instructions);
+        int blocksCount = blocks.size();
+        int[] firstIndex = new int[blocksCount];
+        BitSet[] blockUse = new BitSet[blocksCount];
+        BitSet[] blockDef = new BitSet[blocksCount];
+        BitSet[] blockIn = new BitSet[blocksCount];
+        BitSet[] blockOut = new BitSet[blocksCount];
+
+        int index = 0;
+        for (BasicBlock block : blocks) {
+            int id = block.getId();
+            BitSet use = new BitSet(registers.size());
+            BitSet def = new BitSet(registers.size());
+
+            firstIndex[id] = index;
+
+            for (int i = 0; i < block.getInstructions().size(); i++, index++) {
+                for (int register : uses[index]) {
+                    if (!def.get(register)) {
+                        use.set(register);
+                    }
+                }
+
+                if (defs[index] >= 0) {
+                    def.set(defs[index]);
+                }
             }
-        }
-
-        //System.out.println("-------------------------------- Program " + program.getLine());
-        //printInLive(inLive);
-        //printOutLive(outLive);
-
-        return inLive;
-    }
-
-    @Override
-    public Set<String> visit(ICClass icClass, Set<String> outLive) throws Exception {
-        Set<String> inLive = outLive;
-
-        for (Method method : icClass.getMethods()) {
-            inLive.addAll(method.accept(this, inLive));
-        }
-
-        //System.out.println("-------------------------------- ICClass " + icClass.getLine());
-        //printInLive(inLive);
-        //printOutLive(outLive);
-
-        return inLive;
-    }
-
-    @Override
-    public Set<String> visit(Field field, Set<String> outLive) throws Exception {
-        return outLive;
-    }
-
-    @Override
-    public Set<String> visit(VirtualMethod method, Set<String> outLive) throws Exception {
-        Set<String> inLive = outLive;
-        StringBuffer output = new StringBuffer();
-
-        List<Statement> stmts = method.getStatements();
-        int size = stmts.size() - 1;
 
-        output.append("-------------------------------- VirtualMethod " + method.getLine() + "\n");
-        output.append("Out Live: " + outLive + "\n");
-
-        for (int i = size; i >= 0; i--) {
-            inLive.addAll(stmts.get(i).accept(this, inLive));
+            blockUse[id] = use;
+            blockDef[id] = def;
+            blockIn[id] = (BitSet) use.clone();
+            blockOut[id] = new BitSet(registers.size());
         }
 
-        //for (Formal formal : method.getFormals()) {
-        //    inLive.addAll(formal.accept(this, inLive));
-        //}
-
-        output.append("In Live: " + inLive);
-        System.out.println(output);
-
-        return inLive;
-    }
-
-    @Override
-    public Set<String> visit(StaticMethod method, Set<String> outLive) throws Exception {
-        Set<String> inLive = outLive;
-        StringBuffer output = new StringBuffer();
-
-        List<Statement> stmts = method.getStatements();
-        int size = stmts.size() - 1;
-
-        output.append("-------------------------------- StaticMethod " + method.getLine() + "\n");
-        output.append("Out Live: " + outLive + "\n");
+        /* in = use + (out - def), out = the union of the successors in. A block is
+           visited again only when the in set of one of its successors grew */
+        Deque<BasicBlock> worklist = new ArrayDeque<>();
+        boolean[] queued = new boolean[blocksCount];
 
-        for (int i = size; i >= 0; i--) {
-            inLive.addAll(stmts.get(i).accept(this, inLive));
+        for (int i = blocksCount - 1; i >= 0; i--) {
+            worklist.add(blocks.get(i));
+            queued[i] = true;
         }
 
-        //for (Formal formal : method.getFormals()) {
-        //    inLive.addAll(formal.accept(this, inLive));
-        //}
-
-        output.append("In Live: " + inLive);
-        System.out.println(output);
-
-        return inLive;
-    }
-
-    @Override
-    public Set<String> visit(LibraryMethod method, Set<String> outLive) throws Exception {
-        return outLive;
-    }
-
-    @Override
-    public Set<String> visit(Formal formal, Set<String> outLive) throws Exception {
-        Set<String> inLive = outLive;
-
-        inLive.add(formal.getName());
-
-        //System.out.println("-------------------------------- Formal " + formal.getLine());
-        //printInLive(inLive);
-        //printOutLive(outLive);
-
-        return inLive;
-    }
-
-    @Override
-    public Set<String> visit(PrimitiveType type, Set<String> outLive) throws Exception {
-        return outLive;
-    }
-
-    @Override
-    public Set<String> visit(UserType type, Set<String> outLive) throws Exception {
-        return outLive;
-    }
-
-    @Override
-    public Set<String> visit(Assignment assignment, Set<String> outLive) throws Exception {
-        Set<String> inLive = outLive;
-        Set<String> ref = new HashSet<>();
-        Set<String> def = new HashSet<>();
-
-        StringBuffer output = new StringBuffer();
-
-        output.append("-------------------------------- Assignment " + assignment.getLine() + "\n");
-        output.append("Out Live: " + outLive + "\n");
-
-        def.addAll(assignment.getVariable().accept(this, def));      // def
-        ref.addAll(assignment.getAssignment().accept(this, ref));    // ref
-
-        inLive.removeAll(def);
-        inLive.addAll(ref);
-
-        output.append("In Live: " + inLive);
-        System.out.println(output);
-
-        return inLive;
-    }
-
-    @Override
-    public Set<String> visit(CallStatement callStatement, Set<String> outLive) throws Exception {
-        Set<String> inLive = outLive;
-
-        inLive.addAll(callStatement.getCall().accept(this, inLive));
-
-        System.out.println("-------------------------------- CallStatement " + callStatement.getLine());
-        printInLive(inLive);
-        printOutLive(outLive);
-
-        return inLive;
-    }
-
-    @Override
-    public Set<String> visit(Return returnStatement, Set<String> outLive) throws Exception {
-        Set<String> inLive = outLive;
-        StringBuffer output = new StringBuffer();
-
-        output.append("-------------------------------- Return " + returnStatement.getLine() + "\n");
-        output.append("Out Live: " + outLive + "\n");
-
-        if (returnStatement.hasValue()) {
-            inLive.addAll(returnStatement.getValue().accept(this, inLive));
-        }
-
-        output.append("In Live: " + inLive);
-        System.out.println(output);
-
-        return inLive;
-    }
-
-    @Override
-    public Set<String> visit(If ifStatement, Set<String> outLive) throws Exception {
-        Set<String> inLive = outLive;
-
-        inLive.addAll(ifStatement.getOperation().accept(this, inLive));
-        inLive.addAll(ifStatement.getCondition().accept(this, inLive));
-
-        if (ifStatement.hasElse()) {
-            inLive.addAll(ifStatement.getElseOperation().accept(this, inLive));
-        }
-
-        System.out.println("-------------------------------- If " + ifStatement.getLine());
-        printInLive(inLive);
-        printOutLive(outLive);
-
-        return inLive;
-    }
+        while (!worklist.isEmpty()) {
+            BasicBlock block = worklist.poll();
+            int id = block.getId();
+            queued[id] = false;
 
-    @Override
-    public Set<String> visit(While whileStatement, Set<String> outLive) throws Exception {
-        Set<String> inLive = outLive;
-        StringBuffer output = new StringBuffer();
-        output.append("-------------------------------- While " + whileStatement.getLine() + "\n");
-
-        inLive.addAll(whileStatement.getOperation().accept(this, inLive));
-        output.append("Out Live: " + inLive + "\n");
-
-        inLive.addAll(whileStatement.getCondition().accept(this, inLive));
-
-        output.append("In Live: " + inLive);
-        System.out.println(output);
-
-        return inLive;
-    }
-
-    @Override
-    public Set<String> visit(Break breakStatement, Set<String> outLive) throws Exception {
-        return outLive;
-    }
-
-    @Override
-    public Set<String> visit(Continue continueStatement, Set<String> outLive) throws Exception {
-        return outLive;
-    }
+            BitSet out = blockOut[id];
+            for (BasicBlock successor : block.getSuccessors()) {
+                out.or(blockIn[successor.getId()]);
+            }
 
-    @Override
-    public Set<String> visit(StatementsBlock statementsBlock, Set<String> outLive) throws Exception {
-        Set<String> inLive = outLive;
+            BitSet in = (BitSet) out.clone();
+            in.andNot(blockDef[id]);
+            in.or(blockUse[id]);
 
-        List<Statement> stmts = statementsBlock.getStatements();
-        int size = stmts.size() - 1;
+            if (!in.equals(blockIn[id])) {
+                blockIn[id] = in;
 
-        for (int i = size; i >= 0; i--) {
-            inLive.addAll(stmts.get(i).accept(this, inLive));
+                for (BasicBlock predecessor : block.getPredecessors()) {
+                    if (!queued[predecessor.getId()]) {
+                        worklist.add(predecessor);
+                        queued[predecessor.getId()] = true;
+                    }
+                }
+            }
         }
 
-        //System.out.println("-------------------------------- StatementsBlock " + statementsBlock.getLine());
-        //printOutLive(outLive);
-        //printInLive(inLive);
-
-        return inLive;
-    }
-
-    @Override
-    public Set<String> visit(LocalVariable localVariable, Set<String> outLive) throws Exception {
-        Set<String> inLive = outLive;
+        liveOut = new BitSet[instructions.size()];
 
-        inLive.remove(localVariable.getName());
+        for (BasicBlock block : blocks) {
+            int id = block.getId();
+            BitSet live = (BitSet) blockOut[id].clone();
 
-        if (localVariable.hasInitValue()) {
-            inLive.addAll(localVariable.getInitValue().accept(this, inLive));
-        }
-
-        //System.out.println("-------------------------------- LocalVariable " + localVariable.getLine());
-        //printOutLive(outLive);
-        //printInLive(inLive);
-
-        return inLive;
-    }
+            for (int i = firstIndex[id] + block.getInstructions().size() - 1; i >= firstIndex[id]; i--) {
+                liveOut[i] = (BitSet) live.clone();
 
-    @Override
-    public Set<String> visit(VariableLocation location, Set<String> outLive) throws Exception {
-        Set<String> inLive = outLive;
+                if (defs[i] >= 0) {
+                    live.clear(defs[i]);
+                }
 
-        inLive.add(location.getName());
-
-        if (location.isExternal()) {
-            inLive.addAll(location.getLocation().accept(this, inLive));
+                for (int register : uses[i]) {
+                    live.set(register);
+                }
+            }
         }
-
-        //System.out.println("-------------------------------- VariableLocation " + location.getLine());
-        //printInLive(inLive);
-        //printOutLive(outLive);
-
-        return inLive;
     }
 
-    @Override
-    public Set<String> visit(ArrayLocation location, Set<String> outLive) throws Exception {
-        Set<String> inLive = outLive;
-
-        inLive.addAll(location.getArray().accept(this, inLive));
-        inLive.addAll(location.getIndex().accept(this, inLive));
+    /**
+     * Give every register of the method a dense id, in the order of appearance,
+     * and every local if they're analyzed
+     */
+    private void numberRegisters() {
+        uses = new int[instructions.size()][];
+        defs = new int[instructions.size()];
 
-        System.out.println("-------------------------------- ArrayLocation " + location.getLine());
-        //printInLive(inLive);
-        //printOutLive(outLive);
+        for (int i = 0; i < instructions.size(); i++) {
+            LirInstruction instruction = instructions.get(i);
+            List<String> used = instruction.getUsedRegisters();
+            String defined = instruction.getDefinedRegister();
 
-        return inLive;
-    }
+            if (withLocals) {
+                used.addAll(instruction.getUsedLocals());
+                defined = defined != null ? defined : instruction.getDefinedLocal();
+            }
 
-    @Override
-    public Set<String> visit(StaticCall call, Set<String> outLive) throws Exception {
-        Set<String> inLive = outLive;
+            uses[i] = new int[used.size()];
+            for (int j = 0; j < used.size(); j++) {
+                uses[i][j] = idOf(used.get(j));
+            }
 
-        for (Expression expr : call.getArguments()) {
-            inLive.addAll(expr.accept(this, inLive));
+            defs[i] = defined != null ? idOf(defined) : -1;
         }
-
-        System.out.println("-------------------------------- StaticCall " + call.getLine());
-        //printInLive(inLive);
-        //printOutLive(outLive);
-
-        return inLive;
     }
 
-    @Override
-    public Set<String> visit(VirtualCall call, Set<String> outLive) throws Exception {
-        Set<String> inLive = outLive;
+    private int idOf(String register) {
+        Integer id = ids.get(register);
 
-        for (Expression expr : call.getArguments()) {
-            inLive.addAll(expr.accept(this, inLive));
+        if (id == null) {
+            id = registers.size();
+            ids.put(register, id);
+            registers.add(register);
         }
 
-        System.out.println("-------------------------------- VirtualCall " + call.getLine());
-        //printInLive(inLive);
-        //printOutLive(outLive);
-
-        return inLive;
-    }
-
-    @Override
-    public Set<String> visit(This thisExpression, Set<String> outLive) throws Exception {
-        return outLive;
-    }
-
-    @Override
-    public Set<String> visit(NewClass newClass, Set<String> outLive) throws Exception {
-        return outLive;
-    }
-
-    @Override
-    public Set<String> visit(NewArray newArray, Set<String> outLive) throws Exception {
-        Set<String> inLive = outLive;
-
-        inLive.addAll(newArray.getSize().accept(this, inLive));
-
-        System.out.println("-------------------------------- NewArray " + newArray.getLine());
-        //printInLive(inLive);
-        //printOutLive(outLive);
-
-        return inLive;
+        return id;
     }
 
-    @Override
-    public Set<String> visit(Length length, Set<String> outLive) throws Exception {
-        Set<String> inLive = outLive;
-
-        inLive.addAll(length.getArray().accept(this, inLive));
-
-        System.out.println("-------------------------------- Length " + length.getLine());
-        //printInLive(inLive);
-        //printOutLive(outLive);
-
-        return inLive;
+    public List<LirInstruction> getInstructions() {
+        return this.instructions;
     }
 
-    @Override
-    public Set<String> visit(MathBinaryOp binaryOp, Set<String> outLive) throws Exception {
-        Set<String> inLive = outLive;
-
-        inLive.addAll(binaryOp.getFirstOperand().accept(this, inLive));
-        inLive.addAll(binaryOp.getSecondOperand().accept(this, inLive));
-
-        //System.out.println("-------------------------------- MathBinaryOp " + binaryOp.getLine());
-        //printInLive(inLive);
-        //printOutLive(outLive);
-
-        return inLive;
+    public int getRegistersCount() {
+        return this.registers.size();
     }
 
-    @Override
-    public Set<String> visit(LogicalBinaryOp binaryOp, Set<String> outLive) throws Exception {
-        Set<String> inLive = outLive;
-
-        inLive.addAll(binaryOp.getFirstOperand().accept(this, inLive));
-        inLive.addAll(binaryOp.getSecondOperand().accept(this, inLive));
-
-        //System.out.println("-------------------------------- LogicalBinaryOp " + binaryOp.getLine());
-        //printInLive(inLive);
-        //printOutLive(outLive);
-
-        return inLive;
+    public String getRegister(int id) {
+        return this.registers.get(id);
     }
 
-    @Override
-    public Set<String> visit(MathUnaryOp unaryOp, Set<String> outLive) throws Exception {
-        Set<String> inLive = outLive;
-
-        inLive.addAll(unaryOp.getOperand().accept(this, inLive));
-
-        //System.out.println("-------------------------------- MathUnaryOp " + unaryOp.getLine());
-        //printInLive(inLive);
-        //printOutLive(outLive);
-
-        return inLive;
+    /**
+     * Get the id of the register an instruction writes
+     * @param index the index of the instruction in the method
+     * @return the register id, -1 if the instruction doesn't write a register
+     */
+    public int getDefined(int index) {
+        return this.defs[index];
     }
 
-    @Override
-    public Set<String> visit(LogicalUnaryOp unaryOp, Set<String> outLive) throws Exception {
-        Set<String> inLive = outLive;
-
-        inLive.addAll(unaryOp.getOperand().accept(this, inLive));
-
-        //System.out.println("-------------------------------- LogicalUnaryOp " + unaryOp.getLine());
-        //printInLive(inLive);
-        //printOutLive(outLive);
-
-        return inLive;
+    /**
+     * Get the ids of the registers an instruction reads
+     * @param index the index of the instruction in the method
+     * @return the register ids
+     */
+    public int[] getUsed(int index) {
+        return this.uses[index];
     }
 
-    @Override
-    public Set<String> visit(Literal literal, Set<String> outLive) throws Exception {
-        return outLive;
+    /**
+     * Get the registers live right after an instruction
+     * @param index the index of the instruction in the method
+     * @return the ids of the live registers, must not be changed
+     */
+    public BitSet getLiveOut(int index) {
+        return this.liveOut[index];
     }
-
-    @Override
-    public Set<String> visit(ExpressionBlock expressionBlock, Set<String> outLive) throws Exception {
-        Set<String> inLive = outLive;
-
-        inLive.addAll(expressionBlock.getExpression().accept(this, inLive));
-
-        //System.out.println("-------------------------------- ExpressionBlock " + expressionBlock.getLine());
-        //printInLive(inLive);
-        //printOutLive(outLive);
-
-        return inLive;
-    }
-
-    @Override
-    public Set<String> visit(FieldOrMethod fieldOrMethod, Set<String> outLive) throws Exception {
-        Set<String> inLive = outLive;
-
-        for (Field field : fieldOrMethod.getFields()) {
-            inLive.addAll(field.accept(this, inLive));
-        }
-
-        for (Method method : fieldOrMethod.getMethods()) {
-            inLive.addAll(method.accept(this, inLive));
-        }
-
-        return inLive;
-    }
-
-    private void printOutLive(Set<String> outLive) {
-        //System.out.println("Out Live: " + outLive);
-    }
-
-    private void printInLive(Set<String> inLive) {
-        System.out.println("In Live: " + inLive);
-    }
-
 }
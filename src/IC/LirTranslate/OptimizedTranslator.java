@@ -3,22 +3,53 @@ package IC.LirTranslate;
 import IC.AST.*;
 import IC.BinaryOps;
 import IC.CompilerUtils;
+import IC.Lir.LirInstruction;
+import IC.Lir.LirOpcode;
+import IC.Lir.LirOperand;
+import IC.Lir.LirOutput;
+import IC.Lir.LirWriter;
 import IC.SemanticAnalysis.Kind;
 import IC.SemanticAnalysis.SymbolTable;
 import IC.SemanticAnalysis.SymbolTableRow;
+import IC.TypeTable.ArrayType;
+import IC.TypeTable.ClassType;
 import IC.TypeTable.TypeTable;
 
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 public class OptimizedTranslator implements PropagatingVisitor<RegistersInformation, RetObject> {
 
+    /**
+     * The destination of calls whose result is discarded
+     */
+    private static final LirOperand DUMMY = LirOperand.register("Rdummy");
+
+    /**
+     * The number of class units translated ahead of the writer, per worker thread
+     */
+    private static final int UNITS_PER_WORKER = 2;
+
     /**
      * The root of the AST
      */
     private ASTNode root;
 
+    /**
+     * The type table of the compilation
+     */
+    private TypeTable typeTable;
+
     /**
      * The classes layout of the AST
      */
@@ -35,14 +66,19 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
     private SymbolTable currentClassScope;
 
     /**
-     * The string buffer of the translated methods
+     * The instructions of the translated methods
      */
-    private StringBuffer methodsBuffer;
+    private RetObject methodsBuffer;
 
     /**
-     * The string buffer of the Main method
+     * The instructions of the Main method
      */
-    private StringBuffer mainBuffer;
+    private RetObject mainBuffer;
+
+    /**
+     * The output of the translated program, methods are written as soon as they're translated
+     */
+    private LirOutput lirWriter;
 
     /**
      * The string buffer of the translated string literals
@@ -74,21 +110,38 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
      */
     private int cmpCounter;
 
+    /**
+     * The label namespace of the translation unit, so units can be translated independently
+     */
+    private String labelPrefix;
+
     private boolean withComments;
 
+    /**
+     * Whether the runtime checks are kept as calls, the LIR is smaller but slower
+     */
+    private boolean optimizeSize;
+
     /**
      * An indicator if the program encounter a 'Break', 'Continue' or 'Return'
      * in order to remove unnecessary lines
      */
     private boolean foundBreakContinueReturn;
 
+    /**
+     * The number of instructions the dead code elimination removed
+     */
+    private int removedInstructions;
+
     /**
      * Translator constructor
      * @param root the root of the AST tree
+     * @param typeTable the type table of the compilation
      */
-    public OptimizedTranslator(ASTNode root) {
+    public OptimizedTranslator(ASTNode root, TypeTable typeTable) {
         super();
         this.root = root;
+        this.typeTable = typeTable;
         this.cmpCounter = 0;
         this.ifCounter = 0;
         this.ifCounterId = 0;
@@ -97,6 +150,38 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
         this.manager = new ClassLayoutsManager();
         this.stringLiterals = new StringLiterals();
         this.foundBreakContinueReturn = false;
+        this.labelPrefix = "";
+    }
+
+    /**
+     * Translation unit constructor, a unit translates a single class with its own
+     * registers, labels and buffers, and shares the layouts and string literals
+     * @param program the translator of the entire program
+     * @param labelPrefix the label namespace of the unit
+     */
+    private OptimizedTranslator(OptimizedTranslator program, String labelPrefix) {
+        this(program.root, program.typeTable);
+        this.manager = program.manager;
+        this.stringLiterals = program.stringLiterals;
+        this.withComments = program.withComments;
+        this.optimizeSize = program.optimizeSize;
+        this.labelPrefix = labelPrefix;
+        this.methodsBuffer = new RetObject();
+        this.mainBuffer = new RetObject();
+    }
+
+    /**
+     * Translate a single class as a unit
+     * @param icClass the class to translate
+     * @return the unit, holding the translated methods
+     * @throws Exception if anything goes wrong
+     */
+    private OptimizedTranslator translateClass(ICClass icClass) throws Exception {
+        RegistersInformation regInfo = new RegistersInformation();
+        regInfo.initRegisters(100);
+
+        icClass.accept(this, regInfo);
+        return this;
     }
 
     /**
@@ -105,14 +190,53 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
      * @throws Exception if anything goes wrong
      */
     public String translate() throws Exception {
+        StringWriter output = new StringWriter();
+        translate(output);
+
+        return output.toString();
+    }
+
+    /**
+     * Translate the program and write the lir as it's produced
+     * @param output the output to write into, buffered by the caller
+     * @throws Exception if anything goes wrong
+     */
+    public void translate(Writer output) throws Exception {
+        LirWriter writer = new LirWriter(output);
+        translate(writer);
+        writer.flush();
+    }
+
+    /**
+     * Translate the program into an output, e.g. a <code>LirProgram</code> to keep it in memory
+     * @param output the output of the program
+     * @throws Exception if anything goes wrong
+     */
+    public void translate(LirOutput output) throws Exception {
         RegistersInformation regInfo = new RegistersInformation();
         regInfo.initRegisters(100);
 
-        this.methodsBuffer = new StringBuffer();
-        this.mainBuffer = new StringBuffer();
+        this.methodsBuffer = new RetObject();
+        this.mainBuffer = new RetObject();
         this.withComments = false;
+        this.lirWriter = output;
+
+        root.accept(this, regInfo);
+    }
 
-        return root.accept(this, regInfo).getLir();
+    /**
+     * Keep the runtime checks as calls of the check procedures instead of inlining them
+     * @param optimizeSize whether the LIR should be small rather than fast
+     */
+    public void setOptimizeSize(boolean optimizeSize) {
+        this.optimizeSize = optimizeSize;
+    }
+
+    /**
+     * Get the number of instructions the dead code elimination removed from the translated program
+     */
+    public int getRemovedInstructionsCount() {
+        return this.removedInstructions;
     }
 
     private String errorMessages() {
@@ -126,87 +250,149 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
         return output.toString();
     }
 
-    private String runtimeErrors() {
-        return "\n# Runtime checks:\n" +
-                checkZero() + "\n" +
-                checkNullRef() + "\n" +
-                checkArrayAccess() + "\n" +
-                checkArraySize();
+    private List<LirInstruction> runtimeErrors() {
+        List<LirInstruction> output = new ArrayList<>();
+
+        if (!optimizeSize) {
+            /* the checks are inlined into the methods, they only share the error stubs */
+            output.add(LirInstruction.comment("Runtime errors:"));
+            output.addAll(checkError("__checkZero", "str_zero"));
+            output.addAll(checkError("__checkNullRef", "str_null_ref"));
+            output.addAll(checkError("__checkArrayAccess", "str_array_access"));
+            output.addAll(checkError("__checkSize", "str_size"));
+            return output;
+        }
+
+        output.add(LirInstruction.comment("Runtime checks:"));
+        output.addAll(checkZero());
+        output.addAll(checkNullRef());
+        output.addAll(checkArrayAccess());
+        output.addAll(checkArraySize());
+        return output;
+    }
+
+    /**
+     * Get the error stub of a check, it prints the error and exits
+     * @param check the check procedure name
+     * @param message the name of the error message literal
+     */
+    private static List<LirInstruction> checkError(String check, String message) {
+        return Arrays.asList(
+                LirInstruction.label(check + "_err"),
+                new LirInstruction(LirOpcode.LIBRARY, libraryCall("__println", LirOperand.memory(message)), DUMMY),
+                new LirInstruction(LirOpcode.JUMP, LirOperand.label("_error_exit")));
+    }
+
+    /**
+     * Get a check procedure, it compares its parameter with 0 and jumps to the error stub
+     * @param check the check procedure name
+     * @param param the parameter name
+     * @param errorJump the jump to the error stub, taken when the comparison fails
+     * @param message the name of the error message literal
+     */
+    private static List<LirInstruction> checkProcedure(String check, String param, LirOpcode errorJump, String message) {
+        List<LirInstruction> output = new ArrayList<>();
+
+        output.add(LirInstruction.label(check));
+        output.add(new LirInstruction(LirOpcode.MOVE, LirOperand.memory(param), LirOperand.register("R1")));
+        output.add(new LirInstruction(LirOpcode.COMPARE, LirOperand.immediate(0), LirOperand.register("R1")));
+        output.add(new LirInstruction(errorJump, LirOperand.label(check + "_err")));
+        output.add(new LirInstruction(LirOpcode.RETURN, LirOperand.immediate(9999)));
+        output.addAll(checkError(check, message));
+
+        return output;
     }
 
-    private String checkZero() {
-        return  "__checkZero:\n"+
-                "Move b, R1\n"+
-                "Compare 0, R1\n"+
-                "JumpTrue __checkZero_err\n"+
-                "Return 9999\n"+
-                "__checkZero_err:\n"+
-                "Library __println(str_zero),Rdummy\n"+
-                "Jump _error_exit\n";
+    private static List<LirInstruction> checkZero() {
+        return checkProcedure("__checkZero", "b", LirOpcode.JUMP_TRUE, "str_zero");
     }
 
-    private String checkNullRef() {
-        return "__checkNullRef:\n" +
-                "Move a, R1\n" +
-                "Compare 0, R1\n" +
-                "JumpTrue __checkNullRef_err\n" +
-                "Return 9999\n" +
-                "__checkNullRef_err:\n" +
-                "Library __println(str_null_ref),Rdummy\n" +
-                "Jump _error_exit\n";
+    private static List<LirInstruction> checkNullRef() {
+        return checkProcedure("__checkNullRef", "a", LirOpcode.JUMP_TRUE, "str_null_ref");
     }
 
-    private String checkArrayAccess() {
-        return "__checkArrayAccess:\n" +
-                "Move a, R1\n" +
-                "Move i, R2\n" +
-                "ArrayLength R1, R1\n" +
-                "Compare R1, R2\n" +
-                "JumpGE __checkArrayAccess_err\n" +
-                "Compare 0, R2\n" +
-                "JumpL __checkArrayAccess_err\n" +
-                "Return 9999\n" +
-                "__checkArrayAccess_err:\n" +
-                "Library __println(str_array_access), Rdummy\n" +
-                "Jump _error_exit\n";
+    private static List<LirInstruction> checkArrayAccess() {
+        LirOperand array = LirOperand.register("R1");
+        LirOperand index = LirOperand.register("R2");
+        LirOperand error = LirOperand.label("__checkArrayAccess_err");
+        List<LirInstruction> output = new ArrayList<>();
+
+        output.add(LirInstruction.label("__checkArrayAccess"));
+        output.add(new LirInstruction(LirOpcode.MOVE, LirOperand.memory("a"), array));
+        output.add(new LirInstruction(LirOpcode.MOVE, LirOperand.memory("i"), index));
+        output.add(new LirInstruction(LirOpcode.ARRAY_LENGTH, array, array));
+        output.add(new LirInstruction(LirOpcode.COMPARE, array, index));
+        output.add(new LirInstruction(LirOpcode.JUMP_GE, error));
+        output.add(new LirInstruction(LirOpcode.COMPARE, LirOperand.immediate(0), index));
+        output.add(new LirInstruction(LirOpcode.JUMP_L, error));
+        output.add(new LirInstruction(LirOpcode.RETURN, LirOperand.immediate(9999)));
+        output.addAll(checkError("__checkArrayAccess", "str_array_access"));
+
+        return output;
     }
 
-    private String checkArraySize() {
-        return "__checkSize:\n" +
-                "Move n, R1\n" +
-                "Compare 0, R1\n" +
-                "JumpL __checkSize_err\n" +
-                "Return 9999\n" +
-                "__checkSize_err:\n" +
-                "Library __println(str_size), Rdummy\n" +
-                "Jump _error_exit\n";
+    private static List<LirInstruction> checkArraySize() {
+        return checkProcedure("__checkSize", "n", LirOpcode.JUMP_L, "str_size");
     }
 
 	@Override
 	public RetObject visit(Program program, RegistersInformation context)
 			throws Exception {
 
-		RetObject output = new RetObject();
-
 		List<ICClass> classes = new ArrayList<>();
 		classes.addAll(program.getClasses());
 
 		manager.build(classes);
 
+		/* name the string literals up front, so the parallel units agree on the names */
+		new StringLiteralsCollector(stringLiterals).collect(program);
+
+		/* the literals and the layouts are known, the header is written before any method */
+		lirWriter.writeData(errorMessages());
+		lirWriter.writeData(stringLiterals.toString());
+		lirWriter.writeData(manager.printPointers());
+
+		lirWriter.writeInstructions(runtimeErrors());
+
+		List<ICClass> unitClasses = new ArrayList<>();
+
 		for (ICClass icClass : program.getClasses()) {
 			if (!icClass.getName().equals("Library")) {
-				output.addLir(icClass.accept(this, context).getLir());
+				unitClasses.add(icClass);
 			}
 		}
 
-        output.addLir(errorMessages());
-        output.addLir(stringLiterals.toString());
-		output.addLir(manager.printPointers());
-        output.addLir(runtimeErrors());
-		output.addLir(methodsBuffer.toString());
-		output.addLir(mainBuffer.toString());
-        output.addLir("_error_exit:\n");
-		return output;
+		/* only a window of units is in flight, so a slow unit holds back at most
+		   the window's translated output while the units after it wait */
+		Deque<ForkJoinTask<OptimizedTranslator>> units = new ArrayDeque<>();
+		int window = UNITS_PER_WORKER * ForkJoinPool.commonPool().getParallelism();
+		int next = 0;
+
+		while (next < unitClasses.size() || !units.isEmpty()) {
+			while (next < unitClasses.size() && units.size() < window) {
+				ICClass icClass = unitClasses.get(next++);
+				OptimizedTranslator unit = new OptimizedTranslator(this, icClass.getName() + "_");
+				units.add(ForkJoinPool.commonPool().submit(() -> unit.translateClass(icClass)));
+			}
+
+			OptimizedTranslator unit;
+
+			/* write the units in the classes order, so the output is deterministic */
+			try {
+				unit = units.poll().get();
+			} catch (ExecutionException ex) {
+				throw ex.getCause() instanceof Exception ? (Exception) ex.getCause() : ex;
+			}
+
+			lirWriter.writeInstructions(unit.methodsBuffer.getInstructions());
+			mainBuffer.addLir(unit.mainBuffer);
+			removedInstructions += unit.removedInstructions;
+		}
+
+		mainBuffer.addLir(LirInstruction.label("_error_exit"));
+		lirWriter.writeInstructions(mainBuffer.getInstructions());
+
+		return new RetObject();
 	}
 
 	@Override
@@ -221,11 +407,11 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
             context.freeAllRegisters();
 
             if (method.getName().equals("main")) {
-				mainBuffer.append("\n" + comment + "# main in " + icClass.getName() + "\n");
-				mainBuffer.append(comment + "_ic_main:\n");
-				mainBuffer.append(comment + method.accept(this, context));
+				mainBuffer.addLir(LirInstruction.comment(comment + "main in " + icClass.getName()));
+				mainBuffer.addLir(label(comment, "_ic_main"));
+				mainBuffer.addLir(method.accept(this, context));
 			} else {
-				methodsBuffer.append(comment + method.accept(this, context));
+				methodsBuffer.addLir(method.accept(this, context));
 			}
         }
 
@@ -244,18 +430,18 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 			throws Exception {
 
         String comment = withComments ? addLogComment(method.getLine(), method) : "";
-		StringBuffer output = new StringBuffer();
+		RetObject output = new RetObject();
 
 		currentScope = method.enclosingScope();
-		output.append("\n" + comment + "_" + currentScope.getParentSymbolTable().getId() + "_" + method.getName() + ":\n");
+		output.addLir(label(comment, "_" + currentScope.getParentSymbolTable().getId() + "_" + method.getName()));
 
 		for (Formal formal : method.getFormals()) {
-			output.append(formal.accept(this, context).getLir());
+			output.addLir(formal.accept(this, context));
 		}
 
 		for (Statement stmt : method.getStatements()) {
             if (!foundBreakContinueReturn) {
-                output.append(stmt.accept(this, context).getLir());
+                output.addLir(stmt.accept(this, context));
             }
 		}
 
@@ -269,13 +455,11 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
             }
 
             if (symbol.getValue().getType() == TypeTable.voidType) {
-                output.append(comment + "Return 9999\n");
+                output.addLir(instruction(comment, LirOpcode.RETURN, LirOperand.immediate(9999)));
             }
         }
 
-		RetObject outputLir = new RetObject();
-		outputLir.addLir(output.toString());
-		return outputLir;
+		return optimizeMethod(output);
 	}
 
 	@Override
@@ -283,17 +467,17 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 			throws Exception {
 
         String comment = withComments ? addLogComment(method.getLine(), method) : "";
-		StringBuffer output = new StringBuffer();
+		RetObject output = new RetObject();
 
 		currentScope = method.enclosingScope();
 
         if (!method.getName().equals("main")) {
-            output.append("\n" + comment + "_" + method.getName() + ":\n");
+            output.addLir(label(comment, "_" + method.getName()));
         }
 
 		for (Statement stmt : method.getStatements()) {
             if (!foundBreakContinueReturn) {
-                output.append(stmt.accept(this, context).getLir());
+                output.addLir(stmt.accept(this, context));
             }
 		}
 
@@ -307,15 +491,35 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
             }
 
             if (!method.getName().equals("main") && symbol.getValue().getType() == TypeTable.voidType) {
-                output.append(comment + "Return 9999\n");
+                output.addLir(instruction(comment, LirOpcode.RETURN, LirOperand.immediate(9999)));
             }
         }
 
-		RetObject outputLir = new RetObject();
-		outputLir.addLir(output.toString());
-		return outputLir;
+		return optimizeMethod(output);
 	}
 
+    /**
+     * Run the passes of a translated method: value numbering, inlining of the runtime checks
+     * unless optimizing for size, copy propagation, dead code elimination and register allocation
+     * @param output the translated method
+     * @return the optimized method
+     */
+    private RetObject optimizeMethod(RetObject output) {
+        List<LirInstruction> numbered = new ValueNumbering(output.getInstructions()).number();
+
+        if (!optimizeSize) {
+            numbered = new CheckInliner(numbered).inline();
+        }
+
+        DeadCodeElimination deadCode = new DeadCodeElimination(new CopyPropagation(numbered).propagate());
+        List<LirInstruction> code = deadCode.eliminate();
+        removedInstructions += deadCode.getRemovedCount();
+
+        RetObject outputLir = new RetObject();
+        outputLir.addLir(new RegisterAllocator(code).allocate());
+        return outputLir;
+    }
+
 	@Override
 	public RetObject visit(LibraryMethod method, RegistersInformation context)
 			throws Exception {
@@ -334,10 +538,7 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 	public RetObject visit(PrimitiveType type, RegistersInformation context)
 			throws Exception {
 
-		String comment = withComments ? addLogComment(type.getLine(), type) : "";
 		RetObject retObject = new RetObject();
-
-		retObject.addLir(comment);
 		retObject.setType(CompilerUtils.primitiveTypeToMyType(type));
 
 		return retObject;
@@ -347,11 +548,8 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 	public RetObject visit(UserType type, RegistersInformation context)
 			throws Exception {
 
-		String comment = withComments ? addLogComment(type.getLine(), type) : "";
 		RetObject retObject = new RetObject();
-
-		retObject.addLir(comment + type.getName());
-		retObject.setType(CompilerUtils.userTypeToMyType(type));
+		retObject.setType(CompilerUtils.userTypeToMyType(type, typeTable));
 
 		return retObject;
 	}
@@ -361,7 +559,7 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 			throws Exception {
 
 		String comment = withComments ? addLogComment(assignment.getLine(), assignment) : "";
-        StringBuffer output = new StringBuffer();
+        RetObject output = new RetObject();
 
         RetObject assignmentLir = assignment.getAssignment().accept(this, context);
         Register targetRegister = context.getRegister(assignmentLir.getResult());
@@ -373,24 +571,24 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
         targetRegister.setValue(assignmentLir.getContext());
         RetObject variableLir = assignment.getVariable().accept(this, context);
 
-        String variableMove;
+        LirInstruction variableMove;
 
-        output.append(comment + assignmentLir.getLir());
+        output.addLir(assignmentLir);
 
         if (assignmentLir.isLiteral() || assignmentLir.isMemory() && !variableLir.isArray() && !variableLir.isMemory()) {
-            variableMove = createMove(variableLir) + " " + targetRegister.getValue() + ", " + variableLir.getResult();
+            variableMove = store(comment, assignmentLir.getResultOperand(), variableLir);
         } else if (assignmentLir.isVar() && variableLir.isMemory()) {
-            variableMove = createMove(variableLir) + " " + assignmentLir.getResult() + ", " + variableLir.getResult() + "\t\t#test";
+            variableMove = store(comment, assignmentLir.getResultOperand(), variableLir).withComment("test");
         } else {
-            output.append(comment + createMove(assignmentLir) + " " + assignmentLir.getResult() + ", " + targetRegister + "\n");
-            variableMove = createMove(variableLir) + " " + targetRegister + ", " + variableLir.getResult();
+            output.addLir(move(comment, assignmentLir, targetRegister));
+            variableMove = store(comment, register(targetRegister), variableLir);
         }
 
-        output.append(comment + variableLir.getLir());
-        output.append(comment + variableMove + "\n");
+        output.addLir(variableLir);
+        output.addLir(variableMove);
 
 		RetObject outputLir = new RetObject();
-		outputLir.addLir(output.toString());
+		outputLir.addLir(output);
 		outputLir.setContext(variableLir.getContext());
 		outputLir.setType(variableLir.getType());
         outputLir.setWhoType(variableLir.getWhoType());
@@ -418,7 +616,7 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 
 
             if (retObject.isLiteral() || retObject.isMemory()) {
-                retObject.addLir(comment + "Return " + retObject.getContext() + "\n");
+                retObject.addLir(instruction(comment, LirOpcode.RETURN, retObject.getResultOperand()));
             } else {
                 Register target = context.getRegister(retObject.getContext());
 
@@ -427,13 +625,13 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
                 }
 
                 target.setValue(retObject.getContext());
-                retObject.addLir(comment + createMove(retObject) + " " + retObject.getResult() + ", " + target + "\n");
-                retObject.addLir(comment + "Return " + target + "\n");
+                retObject.addLir(move(comment, retObject, target));
+                retObject.addLir(instruction(comment, LirOpcode.RETURN, register(target)));
                 context.freeRegister(target);
             }
 
 		} else {
-			retObject.addLir(comment + "Return 9999\n");
+			retObject.addLir(instruction(comment, LirOpcode.RETURN, LirOperand.immediate(9999)));
 		}
 
         foundBreakContinueReturn = true;
@@ -446,40 +644,39 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 			throws Exception {
 
 		String comment = withComments ? addLogComment(ifStatement.getLine(), ifStatement) : "";
-		StringBuffer output = new StringBuffer();
+		RetObject output = new RetObject();
 
 		RetObject ifCondition = ifStatement.getCondition().accept(this, context);
         Register conditionRegister = context.getAvailableRegiser();
 		conditionRegister.setValue(ifCondition.getContext());
 
-		output.append(comment + ifCondition.getLir());
+		output.addLir(ifCondition);
         if (!ifCondition.getResult().equals(conditionRegister.toString())) {
-            output.append(comment + createMove(ifCondition) + " " + ifCondition.getResult() + ", " + conditionRegister + "\n");
+            output.addLir(move(comment, ifCondition, conditionRegister));
         }
 
-		output.append(comment + "Compare 0, " + conditionRegister + "\n");
+		output.addLir(instruction(comment, LirOpcode.COMPARE, LirOperand.immediate(0), register(conditionRegister)));
 
 		ifCounter += 1;
 
-        if (ifStatement.hasElse()) {
-            output.append(comment + "JumpTrue _false_label_" + ifCounterId + ifCounter + "\n");
-        } else {
-            output.append(comment + "JumpTrue _end_label_" + ifCounterId + ifCounter + "\n");
-        }
+        String falseLabel = "_false_label_" + labelPrefix + ifCounterId + ifCounter;
+        String endLabel = "_end_label_" + labelPrefix + ifCounterId + ifCounter;
+
+        output.addLir(jump(comment, LirOpcode.JUMP_TRUE, ifStatement.hasElse() ? falseLabel : endLabel));
 
         RetObject ifOperation = ifStatement.getOperation().accept(this, context);
-        output.append(comment + ifOperation.getLir());
+        output.addLir(ifOperation);
 
         foundBreakContinueReturn = false;
 
         if (ifStatement.hasElse()) {
-            output.append(comment + "Jump _end_label_" + ifCounterId + ifCounter + "\n");
-            output.append(comment + "_false_label_" + ifCounterId + ifCounter + ":\n");
-            output.append(comment + ifStatement.getElseOperation().accept(this, context).getLir());
+            output.addLir(jump(comment, LirOpcode.JUMP, endLabel));
+            output.addLir(label(comment, falseLabel));
+            output.addLir(ifStatement.getElseOperation().accept(this, context));
             foundBreakContinueReturn = false;
         }
 
-		output.append(comment + "_end_label_" + ifCounterId + ifCounter + ":\n");
+		output.addLir(label(comment, endLabel));
 
 		ifCounter -= 1;
 		ifCounterId += 1;
@@ -487,7 +684,7 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 		context.freeRegister(conditionRegister);
 
 		RetObject outputLir = new RetObject();
-		outputLir.addLir(output.toString());
+		outputLir.addLir(output);
 		return outputLir;
 	}
 
@@ -496,7 +693,7 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 			throws Exception {
 
 		String comment = withComments ? addLogComment(whileStatement.getLine(), whileStatement) : "";
-		StringBuffer output = new StringBuffer();
+		RetObject output = new RetObject();
 
         RetObject condition = whileStatement.getCondition().accept(this, context);
         RetObject operation = whileStatement.getOperation().accept(this, context);
@@ -504,19 +701,19 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 		Register conditionRegister = context.getAvailableRegiser();
 		conditionRegister.setValue(condition.getContext());
 
-        String testLabel = "_while_test_label_" + loopCounterId + loopCounter;
-        String endLabel = "_while_end_label_" + loopCounterId + loopCounter;
+        String testLabel = "_while_test_label_" + labelPrefix + loopCounterId + loopCounter;
+        String endLabel = "_while_end_label_" + labelPrefix + loopCounterId + loopCounter;
 
         loopCounter += 1;
 
-		output.append(comment + testLabel + ":\n");
-		output.append(comment + condition.getLir());
-		output.append(comment + createMove(condition) + " " + condition.getResult() + ", " + conditionRegister + "\n");
-		output.append(comment + "Compare 0, " + conditionRegister + "\n");
-        output.append(comment + "JumpTrue " + endLabel + "\n");
-        output.append(comment + operation.getLir());
-		output.append(comment + "Jump " + testLabel + "\n");
-		output.append(comment + endLabel + ":\n");
+		output.addLir(label(comment, testLabel));
+		output.addLir(condition);
+		output.addLir(move(comment, condition, conditionRegister));
+		output.addLir(instruction(comment, LirOpcode.COMPARE, LirOperand.immediate(0), register(conditionRegister)));
+        output.addLir(jump(comment, LirOpcode.JUMP_TRUE, endLabel));
+        output.addLir(operation);
+		output.addLir(jump(comment, LirOpcode.JUMP, testLabel));
+		output.addLir(label(comment, endLabel));
 
         loopCounter -= 1;
         loopCounterId += 1;
@@ -524,7 +721,7 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 		context.freeRegister(conditionRegister);
 
 		RetObject outputLir = new RetObject();
-		outputLir.addLir(output.toString());
+		outputLir.addLir(output);
 		return outputLir;
 	}
 
@@ -533,10 +730,10 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 			throws Exception {
 
 		String comment = withComments ? addLogComment(breakStatement.getLine(), breakStatement) : "";
-        String endLabel = "_while_end_label_" + loopCounterId + loopCounter;
+        String endLabel = "_while_end_label_" + labelPrefix + loopCounterId + loopCounter;
 
         RetObject output = new RetObject();
-        output.addLir(comment + "Jump " + endLabel + "\n");
+        output.addLir(jump(comment, LirOpcode.JUMP, endLabel));
 
         foundBreakContinueReturn = true;
 
@@ -548,10 +745,10 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 			throws Exception {
 
 		String comment = withComments ? addLogComment(continueStatement.getLine(), continueStatement) : "";
-        String testLabel = "_while_test_label_" + loopCounterId + loopCounter;
+        String testLabel = "_while_test_label_" + labelPrefix + loopCounterId + loopCounter;
 
         RetObject output = new RetObject();
-		output.addLir(comment + "Jump " + testLabel + "\n");
+		output.addLir(jump(comment, LirOpcode.JUMP, testLabel));
 
         foundBreakContinueReturn = true;
 
@@ -567,7 +764,7 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 
 		for (Statement stmt : statementsBlock.getStatements()) {
             if (!foundBreakContinueReturn) {
-                output.addLir(stmt.accept(this, context).getLir());
+                output.addLir(stmt.accept(this, context));
             }
 		}
 
@@ -581,7 +778,7 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 			throws Exception {
 
         String comment = withComments ? addLogComment(localVariable.getLine(), localVariable) : "";
-        StringBuffer output = new StringBuffer();
+        RetObject output = new RetObject();
         RetObject outputLir = new RetObject();
         RetObject localVariableInitValue;
 
@@ -596,26 +793,28 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 
         if (localVariable.hasInitValue()) {
             localVariableInitValue = localVariable.getInitValue().accept(this, context);
-            output.append(comment + localVariableInitValue.getLir());
+            output.addLir(localVariableInitValue);
+
+            LirOperand local = LirOperand.memory(localVariable.getName());
 
             if (localVariableInitValue.isLiteral()) {
                 if (localVariableInitValue.getType() == TypeTable.stringType) {
-                    output.append(comment + createMove(localVariableInitValue) + " " + localVariableInitValue.getResult() + ", " + target + "\n");
-                    output.append(comment + "Move " + target + ", " + localVariable.getName() + "\n");
+                    output.addLir(move(comment, localVariableInitValue, target));
+                    output.addLir(instruction(comment, LirOpcode.MOVE, register(target), local));
                 } else {
-                    output.append(comment + createMove(localVariableInitValue) + " " + localVariableInitValue.getResult() + ", " + localVariable.getName() + "\n");
+                    output.addLir(instruction(comment, moveOpcode(localVariableInitValue), localVariableInitValue.getResultOperand(), local));
                 }
             } else if (localVariableInitValue.isVar()) { //localVariableInitValue.isMemory() ||
-                output.append(comment + createMove(localVariableInitValue) + " " + localVariableInitValue.getResult() + ", " + localVariable.getName() + "\n");
+                output.addLir(instruction(comment, moveOpcode(localVariableInitValue), localVariableInitValue.getResultOperand(), local));
             } else {
-                output.append(comment + createMove(localVariableInitValue) + " " + localVariableInitValue.getResult() + ", " + target + "\n");
-                output.append(comment + "Move " + target + ", " + localVariable.getName() + "\n");
+                output.addLir(move(comment, localVariableInitValue, target));
+                output.addLir(instruction(comment, LirOpcode.MOVE, register(target), local));
             }
         }
 
-        outputLir.addLir(output.toString());
+        outputLir.addLir(output);
         outputLir.setContext(localVariable.getName());
-        outputLir.setResult(target.toString());
+        outputLir.setResult(register(target));
         outputLir.setWhoType(RetObject.WhoType.MEMORY);
         return outputLir;
     }
@@ -625,41 +824,42 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 			throws Exception {
 
 		String comment = withComments ? addLogComment(location.getLine(), location) : "";
-		StringBuffer output = new StringBuffer();
+		RetObject output = new RetObject();
 
         RetObject outputLir = new RetObject();
         RetObject.WhoType whoType;
-        SymbolTableRow row = currentScope.lookup(location.getName());
+        SymbolTableRow row = location.isExternal() ? null : location.getBinding().getRow();
 
         if (location.isExternal()) {
             RetObject variableLocationLir = location.getLocation().accept(this, context);
 
-            output.append(comment + variableLocationLir.getLir());
-            row = currentScope.lookup(variableLocationLir.getContext());
+            output.addLir(variableLocationLir);
+            ClassType classType = (ClassType) variableLocationLir.getType();
+            row = classType.getClassAST().enclosingScope().lookup(location.getName());
 
-            Register classRegister = context.getRegister("_DV_" + row.getType());
+            Register classRegister = context.getRegister("_DV_" + classType.getName());
 
             int index;
-            ClassLayout layout = manager.getLayout(row.getType().getName());
+            ClassLayout layout = manager.getLayout(classType.getName());
             index = layout.getFieldIndex(location.getName());
 
             if (classRegister == null) {
                 classRegister = context.getAvailableRegiser();
-                classRegister.setValue("_DV_" + row.getType());
+                classRegister.setValue("_DV_" + classType.getName());
 
-                output.append(comment + createMove(variableLocationLir) + " " + variableLocationLir.getResult() + ", " + classRegister + "\n");
+                output.addLir(move(comment, variableLocationLir, classRegister));
             }
 
-            output.append(comment + "StaticCall __checkNullRef(a=" + classRegister + "), Rdummy\n");
+            output.addLir(check(comment, "__checkNullRef", "a", register(classRegister)));
 
             /*
             ClassLayout layout = manager.getLayout(row.getType().getName());
             int index = layout.getFieldIndex(location.getName());
-            output.append(comment + createMove(variableLocationLir) + " " + variableLocationLir.getResult() + ", " + classRegister + "\n");
-            output.append(comment + "StaticCall __checkNullRef(a=" + classRegister + "), Rdummy\n");
+            output.addLir(move(comment, variableLocationLir, classRegister));
+            output.addLir(check(comment, "__checkNullRef", "a", register(classRegister)));
             */
             whoType = RetObject.WhoType.FIELD;
-            outputLir.setResult(classRegister + "." + index);
+            outputLir.setResult(LirOperand.field(register(classRegister), LirOperand.immediate(index)));
 		} else {
             if (row.getKind() == Kind.FIELD) {
                 Register classRegister = context.getRegister("this");
@@ -669,13 +869,13 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
                     classRegister.setValue("this");
                 }
 
-                output.append(comment + "Move " + classRegister.getValue() + ", " + classRegister + "\n");
+                output.addLir(instruction(comment, LirOpcode.MOVE, LirOperand.memory("this"), register(classRegister)));
 
                 ClassLayout layout = manager.getLayout(currentClassScope.getId());
                 int index = layout.getFieldIndex(location.getName());
 
                 whoType = RetObject.WhoType.FIELD;
-                outputLir.setResult(classRegister + "." + index);
+                outputLir.setResult(LirOperand.field(register(classRegister), LirOperand.immediate(index)));
             } else {
                 Register varRegister = context.getRegister(location.getName());
 
@@ -686,11 +886,11 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
                 varRegister.setValue(location.getName());
 
                 whoType = RetObject.WhoType.MEMORY;
-                outputLir.setResult(location.getName());
+                outputLir.setResult(LirOperand.memory(location.getName()));
             }
         }
 
-		outputLir.addLir(output.toString());
+		outputLir.addLir(output);
 		outputLir.setType(row.getType());
         outputLir.setContext(location.getName());
         outputLir.setWhoType(whoType);
@@ -702,7 +902,7 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 			throws Exception {
 
 		String comment = withComments ? addLogComment(location.getLine(), location) : "";
-		StringBuffer output = new StringBuffer();
+		RetObject output = new RetObject();
         RetObject outputLir = new RetObject();
         RetObject arrayLir;
 		RetObject indexLir;
@@ -717,8 +917,8 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 
         arrayRegister.setValue(arrayLir.getResult());
 
-        output.append(comment + arrayLir.getLir());
-        output.append(comment + createMove(arrayLir) + " " + arrayLir.getResult() + ", " + arrayRegister + "\n");
+        output.addLir(arrayLir);
+        output.addLir(move(comment, arrayLir, arrayRegister));
 
 		indexLir = location.getIndex().accept(this, context);
         Register indexRegister = context.getRegister(indexLir.getContext());
@@ -728,19 +928,26 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
         }
 
         indexRegister.setValue(indexLir.getContext());
-        output.append(comment + indexLir.getLir());
+        output.addLir(indexLir);
 
         if (indexLir.isLiteral() || indexLir.isMemory()) {
-            output.append(comment + "StaticCall __checkArrayAccess(a=" + arrayRegister + ", i=" + indexRegister.getValue() + "), Rdummy\t\t#1\n");
-            outputLir.setResult(arrayRegister + "[" + indexRegister.getValue() + "]");
+            output.addLir(checkArrayAccess(comment, register(arrayRegister), indexLir.getResultOperand()).withComment("1"));
+            outputLir.setResult(LirOperand.array(register(arrayRegister), indexLir.getResultOperand()));
             context.freeRegister(indexRegister);
         } else {
-            output.append(comment + createMove(indexLir) + " " + indexLir.getResult() + ", " + indexRegister + "\n");
-            output.append(comment + "StaticCall __checkArrayAccess(a=" + arrayRegister + ", i=" + indexRegister + "), Rdummy\t\t#2\n");
-            outputLir.setResult(arrayRegister + "[" + indexRegister + "]");
+            output.addLir(move(comment, indexLir, indexRegister));
+            output.addLir(checkArrayAccess(comment, register(arrayRegister), register(indexRegister)).withComment("2"));
+            outputLir.setResult(LirOperand.array(register(arrayRegister), register(indexRegister)));
+        }
+
+        outputLir.addLir(output);
+
+        if (arrayLir.getType() instanceof ArrayType) {
+            ArrayType arrayType = (ArrayType) arrayLir.getType();
+            outputLir.setType(arrayType.getDimention() > 1
+                    ? new ArrayType(arrayType.getType(), arrayType.getDimention() - 1) : arrayType.getType());
         }
 
-        outputLir.addLir(output.toString());
         outputLir.setContext(arrayLir.getContext());
         outputLir.setWhoType(RetObject.WhoType.ARRAY);
         return outputLir;
@@ -751,9 +958,8 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 			throws Exception {
 
         String comment = withComments ? addLogComment(call.getLine(), call) : "";
-        StringBuffer output = new StringBuffer();
+        RetObject output = new RetObject();
 
-        boolean isLibrary = false;
         List<RetObject> argObjs = new ArrayList<>();
         List<Register> argRegisters = new ArrayList<>();
 
@@ -769,10 +975,10 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
             }
 
             if (!retArg.isLiteral() && !retArg.isMemory()) {
-                output.append(retArg.getLir());
+                output.addLir(retArg);
                 if (!retArg.isVar()) {
                     if (!retArg.getResult().equals(argRegister.toString())) {
-                        output.append(comment + createMove(retArg) + " " + retArg.getResult() + ", " + argRegister + "\n");
+                        output.addLir(move(comment, retArg, argRegister));
                     }
                 }
             }
@@ -781,80 +987,39 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
             argRegisters.add(argRegister);
         }
 
-        if (call.getClassName().equals("Library")) {
-            output.append(comment + "Library __" + call.getName() + "(");
-            isLibrary = true;
-        } else {
-            output.append(comment + "StaticCall _" + call.getName() + "(");
-        }
+        boolean isLibrary = call.getClassName().equals("Library");
 
         ClassLayout classLayout = manager.getLayout(call.getClassName());
         Method method = classLayout.getStaticMethod(call.getName());
 
-        int i = 0;
-        for (; i < call.getArguments().size() - 1; i++) {
-            if (isLibrary) {
-                if (argObjs.get(i).isLiteral() || argObjs.get(i).isMemory()) {
-                    output.append(argObjs.get(i).getContext() + ", ");
-                } else {
-                    if (!argObjs.get(i).isField() && !argObjs.get(i).isArray()) {
-                        output.append(argObjs.get(i).getResult() + ", ");
-                    } else {
-                        output.append(argRegisters.get(i) + ", ");
-                    }
-                }
-            } else {
-                if (!argObjs.get(i).isField() && !argObjs.get(i).isArray()) {
-                    output.append(method.getFormals().get(i).getName() + "=" + argObjs.get(i).getResult() + ", ");
-                } else {
-                    output.append(method.getFormals().get(i).getName() + "=" + argRegisters.get(i) + ", ");
-                }
-            }
-        }
-
-        if (i < call.getArguments().size()) {
-            if (isLibrary) {
-                if (argObjs.get(i).isLiteral() || argObjs.get(i).isMemory()) {
-                    output.append(argObjs.get(i).getContext());
-                } else {
-                    if (!argObjs.get(i).isField() && !argObjs.get(i).isArray()) {
-                        output.append(argObjs.get(i).getResult());
-                    } else {
-                        output.append(argRegisters.get(i));
-                    }
-                }
-            } else {
-                if (argObjs.get(i).isLiteral() || argObjs.get(i).isMemory()) {
-                    output.append(method.getFormals().get(i).getName() + "=" + argObjs.get(i).getContext());
-                } else {
-                    if (!argObjs.get(i).isField() && !argObjs.get(i).isArray()) {
-                        output.append(method.getFormals().get(i).getName() + "=" + argObjs.get(i).getResult());
-                    } else {
-                        output.append(method.getFormals().get(i).getName() + "=" + argRegisters.get(i));
-                    }
-                }
-            }
+        List<String> paramNames = new ArrayList<>();
+        for (int i = 0; i < argObjs.size(); i++) {
+            paramNames.add(isLibrary ? null : method.getFormals().get(i).getName());
         }
 
         RetObject outputLir = new RetObject();
+        LirOperand target = DUMMY;
 
-        if (method.getType().getName().equals("void")) {
-            output.append("), Rdummy\n");
-        } else {
+        if (!method.getType().getName().equals("void")) {
             Register targetRegister = context.getAvailableRegiser();
             targetRegister.setValue(call.getName());
-            output.append("), " + targetRegister + "\n");
-            outputLir.setResult(targetRegister.toString());
+            target = register(targetRegister);
+            outputLir.setResult(target);
             context.setTargetRegister(targetRegister);
         }
 
+        LirOperand function = LirOperand.label((isLibrary ? "__" : "_") + call.getName());
+        output.addLir(instruction(comment, isLibrary ? LirOpcode.LIBRARY : LirOpcode.STATIC_CALL,
+                LirOperand.call(function, paramNames, arguments(argObjs, argRegisters)), target));
+
         for (int j = 0; j < argObjs.size(); j++) {
             if (argObjs.get(j).isLiteral()) {
                 context.freeRegister(argRegisters.get(j));
             }
         }
 
-        outputLir.addLir(output.toString());
+        outputLir.addLir(output);
+        outputLir.setType(method.getType().accept(this, context).getType());
         outputLir.setContext(call.getName());
         outputLir.setWhoType(RetObject.WhoType.STATIC_METHOD);
         return outputLir;
@@ -865,7 +1030,7 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 			throws Exception {
 
         String comment = withComments ? addLogComment(call.getLine(), call) : "";
-        StringBuffer output = new StringBuffer();
+        RetObject output = new RetObject();
 
         Register locRegister = context.getAvailableRegiser();
         locRegister.setValue("this");
@@ -881,14 +1046,14 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
             if (argRegister == null) {
                 argRegister = context.getAvailableRegiser();
                 argRegister.setValue(retArg.getContext());
-                output.append(comment + retArg.getLir());
+                output.addLir(retArg);
             }
 
             if (!retArg.isLiteral() && !retArg.isMemory()) {
-                output.append(retArg.getLir());
+                output.addLir(retArg);
                 if (!retArg.isVar()) {
                     if (!retArg.getResult().equals(argRegister.toString())) {
-                        output.append(comment + createMove(retArg) + " " + retArg.getResult() + ", " + argRegister + "\n");
+                        output.addLir(move(comment, retArg, argRegister));
                     }
                 }
             }
@@ -901,68 +1066,48 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 
         if (call.isExternal()) {
             RetObject location = call.getLocation().accept(this, context);
-            SymbolTableRow callSymbol = currentScope.lookup(location.getContext());
-            classLayout = manager.getLayout(callSymbol.getType().getName());
+            String className = location.getType().getName();
+            classLayout = manager.getLayout(className);
 
-            output.append(comment + location.getLir());
+            output.addLir(location);
 
-            locRegister = context.getRegister("_DV_" + callSymbol.getType().getName());
+            locRegister = context.getRegister("_DV_" + className);
 
             if (locRegister == null) {
                 locRegister = context.getAvailableRegiser();
-                locRegister.setValue("_DV_" + callSymbol.getType().getName());
-                output.append(comment + createMove(location) + " " + location.getResult() + ", " + locRegister + "\n");
-                output.append(comment + "StaticCall __checkNullRef(a=" + locRegister + "), Rdummy\n");
+                locRegister.setValue("_DV_" + className);
+                output.addLir(move(comment, location, locRegister));
+                output.addLir(check(comment, "__checkNullRef", "a", register(locRegister)));
             }
         } else {
             classLayout = manager.getLayout(currentClassScope.getType().toString());
-            output.append(comment + "Move this, " + locRegister + "\n");
+            output.addLir(instruction(comment, LirOpcode.MOVE, LirOperand.memory("this"), register(locRegister)));
             locRegister.setValue("_DV_" + classLayout.getName());
         }
 
-        output.append(comment + "VirtualCall " + locRegister + ".");
-        output.append(classLayout.getMethodIndex(call.getName()) + "(");
         Method method = classLayout.getMethodSymbol(call.getName());
 
-        int i = 0;
-        for (; i < call.getArguments().size() - 1; i++) {
-            if (argObjs.get(i).isLiteral() || argObjs.get(i).isMemory()) {
-                output.append(method.getFormals().get(i).getName() + "=" + argRegisters.get(i).getValue() + ", ");
-            } else {
-                if (!argObjs.get(i).isField() && !argObjs.get(i).isArray()) {
-                    output.append(method.getFormals().get(i).getName() + "=" + argObjs.get(i).getResult() + ", ");
-                } else {
-                    output.append(method.getFormals().get(i).getName() + "=" + argRegisters.get(i) + ", ");
-                }
-            }
-        }
-
-        if (i < call.getArguments().size()) {
-            if (argObjs.get(i).isLiteral() || argObjs.get(i).isMemory()) {
-                output.append(method.getFormals().get(i).getName() + "=" + argRegisters.get(i).getValue());
-            } else {
-                if (!argObjs.get(i).isField() && !argObjs.get(i).isArray()) {
-                    output.append(method.getFormals().get(i).getName() + "=" + argObjs.get(i).getResult());
-                } else {
-                    output.append(method.getFormals().get(i).getName() + "=" + argRegisters.get(i));
-                }
-            }
+        List<String> paramNames = new ArrayList<>();
+        for (int i = 0; i < argObjs.size(); i++) {
+            paramNames.add(method.getFormals().get(i).getName());
         }
 
         RetObject outputLir = new RetObject();
+        LirOperand target = DUMMY;
 
-        if (method.getType().getName().equals("void")) {
-            output.append("), Rdummy");
-        } else {
+        if (!method.getType().getName().equals("void")) {
             Register targetRegister = context.getAvailableRegiser();
             targetRegister.setValue(call.getName());
-            output.append("), " + targetRegister);
-            outputLir.setResult(targetRegister.toString());
+            target = register(targetRegister);
+            outputLir.setResult(target);
         }
 
-        output.append("\t\t #" + call.getName() + "\n");
+        LirOperand function = LirOperand.field(register(locRegister), LirOperand.immediate(classLayout.getMethodIndex(call.getName())));
+        output.addLir(instruction(comment, LirOpcode.VIRTUAL_CALL,
+                LirOperand.call(function, paramNames, arguments(argObjs, argRegisters)), target).withComment(call.getName()));
 
-        outputLir.addLir(output.toString());
+        outputLir.addLir(output);
+        outputLir.setType(method.getType().accept(this, context).getType());
         outputLir.setContext(call.getName());
         outputLir.setWhoType(RetObject.WhoType.VIRTUAL_METHOD);
 		return outputLir;
@@ -974,19 +1119,20 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 
 		String comment = withComments ?  addLogComment(thisExpression.getLine(), thisExpression) : "";
 
-		StringBuffer output = new StringBuffer();
+		RetObject output = new RetObject();
 		Register reg = context.getRegister("this");
         if (reg == null) {
             reg = context.getAvailableRegiser();
             reg.setValue("this");
         }
 
-		output.append(comment + "Move " + reg.getValue() + ", " + reg + "\n");
+		output.addLir(instruction(comment, LirOpcode.MOVE, LirOperand.memory("this"), register(reg)));
 
 		RetObject outputLir = new RetObject();
-		outputLir.addLir(output.toString());
+		outputLir.addLir(output);
+		outputLir.setType(typeTable.getClassType(currentClassScope.getId()));
 		outputLir.setContext("$this");
-		outputLir.setResult(reg.toString());
+		outputLir.setResult(register(reg));
         outputLir.setWhoType(RetObject.WhoType.VAR);
 		return outputLir;
 	}
@@ -997,20 +1143,23 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 
 		String comment = withComments ? addLogComment(newClass.getLine(), newClass) : "";
 
-		StringBuffer output = new StringBuffer();
+		RetObject output = new RetObject();
 
 		int size = manager.getLayout(newClass.getName()).getSize();
 
 		Register classRegister = context.getAvailableRegiser();
         classRegister.setValue("_DV_" + newClass.getName());
 
-        output.append(comment + "Library __allocateObject(" + size + "), " + classRegister + "\n");
-        output.append(comment + "MoveField " + classRegister.getValue() + ", " + classRegister + ".0\n");
+        output.addLir(instruction(comment, LirOpcode.LIBRARY,
+                libraryCall("__allocateObject", LirOperand.immediate(size)), register(classRegister)));
+        output.addLir(instruction(comment, LirOpcode.MOVE_FIELD, LirOperand.label("_DV_" + newClass.getName()),
+                LirOperand.field(register(classRegister), LirOperand.immediate(0))));
 
 		RetObject outputLir = new RetObject();
-		outputLir.addLir(output.toString());
+		outputLir.addLir(output);
+		outputLir.setType(typeTable.getClassType(newClass.getName()));
 		outputLir.setContext(newClass.getName());
-        outputLir.setResult(classRegister.toString());
+        outputLir.setResult(register(classRegister));
         outputLir.setWhoType(RetObject.WhoType.VAR);
 		return outputLir;
 	}
@@ -1021,24 +1170,24 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 
 		String comment = withComments ? addLogComment(newArray.getLine(), newArray) : "";
 
-		StringBuffer output = new StringBuffer();
+		RetObject output = new RetObject();
 		RetObject sizeVar = newArray.getSize().accept(this, context);
 
         Register target = context.getTargetRegister();
         target.setValue("NewArray");
 
-        output.append(comment + sizeVar.getLir());
-        output.append(comment + createMove(sizeVar) + " " + sizeVar.getResult() + ", " + target + "\n");
-        output.append(comment + "Mul 4, " + target + "\n");
-        output.append(comment + "StaticCall __checkSize(n=" + target + "), Rdummy\n");
-        output.append(comment + "Library __allocateArray(" + target + "), " + target + "\n");
+        output.addLir(sizeVar);
+        output.addLir(move(comment, sizeVar, target));
+        output.addLir(instruction(comment, LirOpcode.MUL, LirOperand.immediate(4), register(target)));
+        output.addLir(check(comment, "__checkSize", "n", register(target)));
+        output.addLir(instruction(comment, LirOpcode.LIBRARY, libraryCall("__allocateArray", register(target)), register(target)));
 
 		context.setTargetRegister(target);
 
 		RetObject outputLir = new RetObject();
-        outputLir.addLir(output.toString());
+        outputLir.addLir(output);
 		outputLir.setContext(target.getValue());
-        outputLir.setResult(target.toString());
+        outputLir.setResult(register(target));
         outputLir.setWhoType(RetObject.WhoType.VAR);
 		return outputLir;
 	}
@@ -1049,7 +1198,7 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 
 		String comment = withComments ? addLogComment(length.getLine(), length) : "";
 
-		StringBuffer output = new StringBuffer();
+		RetObject output = new RetObject();
 		RetObject arrayLir = length.getArray().accept(this, context);
 
 		Register target = context.getRegister(arrayLir.getContext());
@@ -1059,17 +1208,17 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
             target.setValue(arrayLir.getContext());
         }
 
-		output.append(comment + arrayLir.getLir());
-        output.append(comment + createMove(arrayLir) + " " + arrayLir.getResult() + ", " + target + "\n");
-        output.append(comment + "StaticCall __checkNullRef(a=" + target + "), Rdummy\n");
-        output.append(comment + "ArrayLength " + target + ", " + target + "\n");
+		output.addLir(arrayLir);
+        output.addLir(move(comment, arrayLir, target));
+        output.addLir(check(comment, "__checkNullRef", "a", register(target)));
+        output.addLir(instruction(comment, LirOpcode.ARRAY_LENGTH, register(target), register(target)));
 
 		context.setTargetRegister(target);
 
         RetObject outputLir = new RetObject();
-        outputLir.addLir(output.toString());
+        outputLir.addLir(output);
         outputLir.setContext(arrayLir.getContext());
-        outputLir.setResult(target.toString());
+        outputLir.setResult(register(target));
         outputLir.setWhoType(RetObject.WhoType.VAR);
 		return outputLir;
 	}
@@ -1080,9 +1229,9 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 			throws Exception {
         String comment = withComments ? addLogComment(binaryOp.getLine(), binaryOp) : "";
 
-        StringBuffer output = new StringBuffer();
+        RetObject output = new RetObject();
         RetObject outputLir = new RetObject();
-        String operation = null;
+        LirOpcode operation = null;
 
         int left = binaryOp.getFirstOperand().getWeight();
         int right = binaryOp.getSecondOperand().getWeight();
@@ -1095,77 +1244,64 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 
         if ((left > right) || (binaryOp.getFirstOperand().canCouseSideEffects() || binaryOp.getSecondOperand().canCouseSideEffects())) {
             firstOperand = binaryOp.getFirstOperand().accept(this, context);
-            output.append(comment + firstOperand.getLir());
+            output.addLir(firstOperand);
 
             target = context.getAvailableRegiser();
             target.setValue(firstOperand.getContext());
 
-            output.append(comment + createMove(firstOperand) + " " + firstOperand.getResult() + ", " + target + "\t\t#TARGET\n");
+            output.addLir(move(comment, firstOperand, target).withComment("TARGET"));
 
             secondOperand = binaryOp.getSecondOperand().accept(this, context);
-            output.append(comment + secondOperand.getLir());
+            output.addLir(secondOperand);
 
             tempReg = context.getAvailableRegiser();
             tempReg.setValue(secondOperand.getContext());
 
             if (!secondOperand.isLiteral()) {
-                output.append(comment + createMove(secondOperand) + " " + secondOperand.getResult() + ", " + tempReg + "\t\t#TEMP\n");
+                output.addLir(move(comment, secondOperand, tempReg).withComment("TEMP"));
             }
         } else {
             secondOperand = binaryOp.getSecondOperand().accept(this, context);
-            output.append(comment + secondOperand.getLir());
+            output.addLir(secondOperand);
 
             tempReg = context.getAvailableRegiser();
             tempReg.setValue(secondOperand.getContext());
 
             if (!secondOperand.isLiteral()) {
-                output.append(comment + createMove(secondOperand) + " " + secondOperand.getResult() + ", " + tempReg + "\t\t#TEMP\n");
+                output.addLir(move(comment, secondOperand, tempReg).withComment("TEMP"));
             }
 
             firstOperand = binaryOp.getFirstOperand().accept(this, context);
-            output.append(comment + firstOperand.getLir());
+            output.addLir(firstOperand);
 
             target = context.getAvailableRegiser();
             target.setValue(firstOperand.getContext());
 
-            output.append(comment + createMove(firstOperand) + " " + firstOperand.getResult() + ", " + target + "\t\t#TARGET\n");
+            output.addLir(move(comment, firstOperand, target).withComment("TARGET"));
         }
 
         if (firstOperand.getType() == TypeTable.stringType) {
-            output.append(comment + "Library __stringCat(");
-            if (firstOperand.isLiteral() || firstOperand.isMemory()) {
-                output.append(target.getValue());
-            } else {
-                output.append(target);
-            }
-
-            output.append(", ");
-
-            if (secondOperand.isLiteral() || secondOperand.isMemory()) {
-                output.append(tempReg.getValue());
-            } else {
-                output.append(tempReg);
-            }
-
-            output.append("), " + target + "\n");
+            LirOperand first = firstOperand.isLiteral() || firstOperand.isMemory() ? firstOperand.getResultOperand() : register(target);
+            LirOperand second = secondOperand.isLiteral() || secondOperand.isMemory() ? secondOperand.getResultOperand() : register(tempReg);
+            output.addLir(instruction(comment, LirOpcode.LIBRARY, libraryCall("__stringCat", first, second), register(target)));
 
             outputLir.setType(TypeTable.stringType);
         } else {
             switch (binaryOp.getOperator()) {
                 case DIVIDE:
-                    operation = "Div";
+                    operation = LirOpcode.DIV;
                     break;
                 case MINUS:
-                    operation = "Sub";
+                    operation = LirOpcode.SUB;
                     break;
                 case MOD:
-                    operation = "Mod";
+                    operation = LirOpcode.MOD;
                     break;
                 case MULTIPLY:
-                    operation = "Mul";
+                    operation = LirOpcode.MUL;
                     break;
                 case PLUS:
-                    operation = "Add";
+                    operation = LirOpcode.ADD;
                     break;
             }
 
@@ -1173,37 +1309,37 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
             if (binaryOp.getOperator() == BinaryOps.DIVIDE) {
                 if (secondOperand.isLiteral()) {
                     if ((secondOperand.getType() == TypeTable.intType) && (Integer.parseInt(secondOperand.getContext()) == 0)) {
-                        output.append(comment + "Jump __checkZero_err\n");
+                        output.addLir(jump(comment, LirOpcode.JUMP, "__checkZero_err"));
                     }
                 } else if (secondOperand.isMemory()) {
-                    output.append(comment + "StaticCall __checkZero(b=" + tempReg.getValue() + "), Rdummy\n");
+                    output.addLir(check(comment, "__checkZero", "b", secondOperand.getResultOperand()));
                 } else {
-                    output.append(comment + "StaticCall __checkZero(b=" + tempReg + "), Rdummy\n");
+                    output.addLir(check(comment, "__checkZero", "b", register(tempReg)));
                 }
             }
 
             if (secondOperand.isLiteral()) {
                 if ((secondOperand.getType() == TypeTable.intType) && (secondOperand.getContext().equals("1"))) {
                     if (binaryOp.getOperator() == BinaryOps.PLUS) {
-                        output.append(comment + "Inc " + target + "\n");
+                        output.addLir(instruction(comment, LirOpcode.INC, register(target)));
                     } else if (binaryOp.getOperator() == BinaryOps.MINUS) {
-                        output.append(comment + "Dec " + target + "\n");
+                        output.addLir(instruction(comment, LirOpcode.DEC, register(target)));
                     }
                 } else {
-                    output.append(comment + operation + " " + tempReg.getValue() + ", " + target + "\n");
+                    output.addLir(instruction(comment, operation, secondOperand.getResultOperand(), register(target)));
                 }
             } else if (secondOperand.isMemory()) {
-                output.append(comment + operation + " " + tempReg.getValue() + ", " + target + "\n");
+                output.addLir(instruction(comment, operation, secondOperand.getResultOperand(), register(target)));
             } else {
-                output.append(comment + operation + " " + tempReg + ", " + target + "\n");
+                output.addLir(instruction(comment, operation, register(tempReg), register(target)));
             }
         }
 
         //context.freeRegister(tempReg);
 
-        outputLir.addLir(output.toString());
+        outputLir.addLir(output);
         outputLir.setContext(target.getValue());
-        outputLir.setResult(target.toString());
+        outputLir.setResult(register(target));
         outputLir.setWhoType(RetObject.WhoType.VAR);
         return outputLir;
 	}
@@ -1214,7 +1350,7 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 
 		String comment = withComments ? addLogComment(binaryOp.getLine(), binaryOp) : "";
 
-		StringBuffer output = new StringBuffer();
+		RetObject output = new RetObject();
 
         RetObject firstOperand;
         //Register tempRegister1 = context.getTargetRegister();
@@ -1236,89 +1372,87 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
                 tempRegister1 = context.getRegister(firstOperand.getContext());
             }
             */
-            output.append(comment + firstOperand.getLir());
+            output.addLir(firstOperand);
             tempRegister1.setValue(firstOperand.getContext());
-            output.append(comment + createMove(firstOperand) + " " + firstOperand.getResult() + ", " + tempRegister1 + "\n");
+            output.addLir(move(comment, firstOperand, tempRegister1));
 
             secondOperand = binaryOp.getSecondOperand().accept(this, context);
-            output.append(comment + secondOperand.getLir());
+            output.addLir(secondOperand);
             tempRegister2.setValue(secondOperand.getContext());
-            output.append(comment + createMove(secondOperand) + " " + secondOperand.getResult() + ", " + tempRegister2 + "\n");
+            output.addLir(move(comment, secondOperand, tempRegister2));
         } else {
             secondOperand = binaryOp.getSecondOperand().accept(this, context);
-            output.append(comment + secondOperand.getLir());
+            output.addLir(secondOperand);
             tempRegister2.setValue(secondOperand.getContext());
-            output.append(comment + createMove(secondOperand) + " " + secondOperand.getResult() + ", " + tempRegister2 + "\n");
+            output.addLir(move(comment, secondOperand, tempRegister2));
 
             firstOperand = binaryOp.getFirstOperand().accept(this, context);
-            output.append(comment + firstOperand.getLir());
+            output.addLir(firstOperand);
             tempRegister1.setValue(firstOperand.getContext());
-            output.append(comment + createMove(firstOperand) + " " + firstOperand.getResult() + ", " + tempRegister1 + "\n");
+            output.addLir(move(comment, firstOperand, tempRegister1));
         }
 
         cmpCounter += 1;
 
-        if (binaryOp.getOperator() != BinaryOps.LAND && binaryOp.getOperator() != BinaryOps.LOR) {
-            output.append(comment + "Compare ");
-            if (secondOperand.isLiteral() || secondOperand.isMemory()) {
-                output.append(tempRegister2.getValue());
-            } else {
-                output.append(tempRegister2);
-            }
+        String trueLabel = "_if_true_label_" + labelPrefix + ifCounterId + ifCounter + cmpCounter;
+        String falseLabel = "_if_false_label_" + labelPrefix + ifCounterId + ifCounter + cmpCounter;
+        String endLabel = "_if_end_label_" + labelPrefix + ifCounterId + ifCounter + cmpCounter;
 
-            output.append(", " + tempRegister1 + "\n");
+        if (binaryOp.getOperator() != BinaryOps.LAND && binaryOp.getOperator() != BinaryOps.LOR) {
+            LirOperand second = secondOperand.isLiteral() || secondOperand.isMemory() ? secondOperand.getResultOperand() : register(tempRegister2);
+            output.addLir(instruction(comment, LirOpcode.COMPARE, second, register(tempRegister1)));
         }
 
 		switch (binaryOp.getOperator()) {
             case GT:
-                output.append(comment + "JumpG _if_true_label_" + ifCounterId + ifCounter + cmpCounter + "\n");
+                output.addLir(jump(comment, LirOpcode.JUMP_G, trueLabel));
                 break;
             case GTE:
-                output.append(comment + "JumpGE _if_true_label_" + ifCounterId + ifCounter + cmpCounter + "\n");
+                output.addLir(jump(comment, LirOpcode.JUMP_GE, trueLabel));
                 break;
             case LT:
-                output.append(comment + "JumpL _if_true_label_" + ifCounterId + ifCounter + cmpCounter + "\n");
+                output.addLir(jump(comment, LirOpcode.JUMP_L, trueLabel));
                 break;
             case LTE:
-                output.append(comment + "JumpLE _if_true_label_" + ifCounterId + ifCounter + cmpCounter + "\n");
+                output.addLir(jump(comment, LirOpcode.JUMP_LE, trueLabel));
                 break;
             case LOR:
-                output.append(comment + "Compare 0, " + tempRegister1 + "\n");
-                output.append(comment + "JumpFalse _if_true_label_" + ifCounterId + ifCounter + cmpCounter + "\n");
-                output.append(comment + "Compare 0, " + tempRegister2 + "\n");
-                output.append(comment + "JumpFalse _if_true_label_" + ifCounterId + ifCounter + cmpCounter + "\n");
+                output.addLir(instruction(comment, LirOpcode.COMPARE, LirOperand.immediate(0), register(tempRegister1)));
+                output.addLir(jump(comment, LirOpcode.JUMP_FALSE, trueLabel));
+                output.addLir(instruction(comment, LirOpcode.COMPARE, LirOperand.immediate(0), register(tempRegister2)));
+                output.addLir(jump(comment, LirOpcode.JUMP_FALSE, trueLabel));
                 break;
             case LAND:
-                output.append(comment + "Compare 0, " + tempRegister1 + "\n");
-                output.append(comment + "JumpTrue _if_false_label_" + ifCounterId + ifCounter + cmpCounter + "\n");
-                output.append(comment + "Compare 0, " + tempRegister2 + "\n");
-                output.append(comment + "JumpTrue _if_false_label_" + ifCounterId + ifCounter + cmpCounter + "\n");
-                output.append(comment + "Jump _if_true_label_" + ifCounterId + ifCounter + cmpCounter + "\n");
-                output.append(comment + "_if_false_label_" + ifCounterId + ifCounter + cmpCounter + ":\n");
+                output.addLir(instruction(comment, LirOpcode.COMPARE, LirOperand.immediate(0), register(tempRegister1)));
+                output.addLir(jump(comment, LirOpcode.JUMP_TRUE, falseLabel));
+                output.addLir(instruction(comment, LirOpcode.COMPARE, LirOperand.immediate(0), register(tempRegister2)));
+                output.addLir(jump(comment, LirOpcode.JUMP_TRUE, falseLabel));
+                output.addLir(jump(comment, LirOpcode.JUMP, trueLabel));
+                output.addLir(label(comment, falseLabel));
                 break;
             case EQUAL:
-                output.append("JumpTrue _if_true_label_" + ifCounterId + ifCounter + cmpCounter + "\n");
+                output.addLir(jump(comment, LirOpcode.JUMP_TRUE, trueLabel));
                 break;
             case NEQUAL:
-                output.append("JumpFalse _if_true_label_" + ifCounterId + ifCounter + cmpCounter + "\n");
+                output.addLir(jump(comment, LirOpcode.JUMP_FALSE, trueLabel));
                 break;
             default:
                 break;
 		}
 
-        output.append(comment + "Move 0, " + tempRegister1 + "\n");
-        output.append(comment + "Jump _if_end_label_" + ifCounterId + ifCounter + cmpCounter + "\n");
-        output.append(comment + "_if_true_label_" + ifCounterId + ifCounter + cmpCounter + ":\n");
-        output.append(comment + "Move 1, " + tempRegister1 + "\n");
-        output.append(comment + "_if_end_label_" + ifCounterId + ifCounter + cmpCounter + ":\n");
+        output.addLir(instruction(comment, LirOpcode.MOVE, LirOperand.immediate(0), register(tempRegister1)));
+        output.addLir(jump(comment, LirOpcode.JUMP, endLabel));
+        output.addLir(label(comment, trueLabel));
+        output.addLir(instruction(comment, LirOpcode.MOVE, LirOperand.immediate(1), register(tempRegister1)));
+        output.addLir(label(comment, endLabel));
 
 		context.freeRegister(tempRegister2);
         context.setTargetRegister(tempRegister1);
 
         RetObject outputLir = new RetObject();
-        outputLir.addLir(output.toString());
+        outputLir.addLir(output);
         outputLir.setContext(tempRegister1.getValue());
-        outputLir.setResult(tempRegister1.toString());
+        outputLir.setResult(register(tempRegister1));
         outputLir.setWhoType(RetObject.WhoType.VAR);
 		return outputLir;
 	}
@@ -1329,12 +1463,12 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 
         String comment = withComments ? addLogComment(unaryOp.getLine(), unaryOp) : "";
 
-		StringBuffer output = new StringBuffer();
+		RetObject output = new RetObject();
 
         RetObject outputLir = new RetObject();
         RetObject unaryObj = unaryOp.getOperand().accept(this, context);
 
-        output.append(comment + unaryObj.getLir());
+        output.addLir(unaryObj);
 
         if (unaryObj.isLiteral() || unaryObj.isMemory()) {
             Register target = context.getRegister(unaryObj.getContext());
@@ -1344,19 +1478,19 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
                 target.setValue(unaryObj.getContext());
             }
 
-            output.append(comment + createMove(unaryObj) + " " + unaryObj.getContext() + ", " + target + "\n");
-            output.append(comment + "Neg " + target + "\n");
+            output.addLir(move(comment, unaryObj, target));
+            output.addLir(instruction(comment, LirOpcode.NEG, register(target)));
             outputLir.setContext("-" + target.getValue());
-            outputLir.setResult(target.toString());
+            outputLir.setResult(register(target));
             outputLir.setWhoType(RetObject.WhoType.VAR);
         } else {
-            output.append(comment + "Neg " + unaryObj.getResult() + "\n");
+            output.addLir(instruction(comment, LirOpcode.NEG, unaryObj.getResultOperand()));
             outputLir.setContext(unaryObj.getContext());
-            outputLir.setResult(unaryObj.getResult());
+            outputLir.setResult(unaryObj.getResultOperand());
             outputLir.setWhoType(unaryObj.getWhoType());
         }
 
-        outputLir.addLir(output.toString());
+        outputLir.addLir(output);
 		return outputLir;
     }
 
@@ -1366,12 +1500,12 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 		
 		String comment = withComments ? addLogComment(unaryOp.getLine(), unaryOp) : "";
 
-        StringBuffer output = new StringBuffer();
+        RetObject output = new RetObject();
 
         RetObject outputLir = new RetObject();
         RetObject unaryObj = unaryOp.getOperand().accept(this, context);
 
-        output.append(comment + unaryObj.getLir());
+        output.addLir(unaryObj);
 
         if (unaryObj.isLiteral() || unaryObj.isMemory()) {
             Register target = context.getRegister(unaryObj.getContext());
@@ -1381,30 +1515,23 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
                 target.setValue(unaryObj.getContext());
             }
 
-            output.append("Compare 0, " + target + "\n");
-            output.append("JumpTrue _unary_true_label\n");
-            output.append("Move 0, " + target + "\n");
-            output.append("Jump _unary_end_label\n");
-            output.append("_unary_true_label:\n");
-            output.append("Move 1, " + target + "\n");
-            output.append("_unary_end_label:\n");
-
             outputLir.setContext("!" + target.getValue());
-            outputLir.setResult(target.toString());
+            outputLir.setResult(register(target));
         } else {
-            output.append("Compare 0, " + unaryObj.getResult() + "\n");
-            output.append("JumpTrue _unary_true_label\n");
-            output.append("Move 0, " + unaryObj.getResult() + "\n");
-            output.append("Jump _unary_end_label\n");
-            output.append("_unary_true_label:\n");
-            output.append("Move 1, " + unaryObj.getResult() + "\n");
-            output.append("_unary_end_label:\n");
-
             outputLir.setContext(unaryObj.getContext());
-            outputLir.setResult(unaryObj.getResult());
+            outputLir.setResult(unaryObj.getResultOperand());
         }
 
-        outputLir.addLir(output.toString());
+        LirOperand operand = outputLir.getResultOperand();
+        output.addLir(instruction(comment, LirOpcode.COMPARE, LirOperand.immediate(0), operand));
+        output.addLir(jump(comment, LirOpcode.JUMP_TRUE, "_unary_true_label"));
+        output.addLir(instruction(comment, LirOpcode.MOVE, LirOperand.immediate(0), operand));
+        output.addLir(jump(comment, LirOpcode.JUMP, "_unary_end_label"));
+        output.addLir(label(comment, "_unary_true_label"));
+        output.addLir(instruction(comment, LirOpcode.MOVE, LirOperand.immediate(1), operand));
+        output.addLir(label(comment, "_unary_end_label"));
+
+        outputLir.addLir(output);
 
         outputLir.setWhoType(unaryObj.getWhoType());
 		return outputLir;
@@ -1417,25 +1544,30 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 		String comment = withComments ? addLogComment(literal.getLine(), literal) : "";
 
         String strLitValue;
-        StringBuffer output = new StringBuffer();
+        RetObject output = new RetObject();
         RetObject outputLir = new RetObject();
 
         switch (literal.getType()) {
             case STRING:
                 strLitValue = stringLiterals.addStringlIteral(literal.getValue().toString());
                 outputLir.setContext(strLitValue);
+                outputLir.setResult(LirOperand.memory(strLitValue));
                 break;
             case INTEGER:
                 outputLir.setContext(literal.getValue().toString());
+                outputLir.setResult(LirOperand.immediate((Integer) literal.getValue()));
                 break;
             case FALSE:
                 outputLir.setContext(0);
+                outputLir.setResult(LirOperand.immediate(0));
                 break;
             case TRUE:
                 outputLir.setContext(1);
+                outputLir.setResult(LirOperand.immediate(1));
                 break;
             case NULL:
                 outputLir.setContext(0);
+                outputLir.setResult(LirOperand.immediate(0));
                 break;
             default:
                 break;
@@ -1443,7 +1575,6 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 
         outputLir.setType(CompilerUtils.literalTypeToMyType(literal.getType()));
         outputLir.setWhoType(RetObject.WhoType.LITERAL);
-        outputLir.setResult(outputLir.getContext());
 		return outputLir;
 	}
 
@@ -1461,21 +1592,81 @@ public class OptimizedTranslator implements PropagatingVisitor<RegistersInformat
 		return new RetObject();
 	}
 
-    private String createMove(RetObject object) {
-        String moveString;
-
+    private static LirOpcode moveOpcode(RetObject object) {
         switch (object.getWhoType()) {
             case ARRAY:
-                moveString = "MoveArray";
-                break;
+                return LirOpcode.MOVE_ARRAY;
             case FIELD:
-                moveString = "MoveField";
-                break;
+                return LirOpcode.MOVE_FIELD;
             default:
-                moveString = "Move";
+                return LirOpcode.MOVE;
+        }
+    }
+
+    /**
+     * Create an instruction, with the log comment after it when translating with comments
+     */
+    private static LirInstruction instruction(String comment, LirOpcode opcode, LirOperand... operands) {
+        LirInstruction instruction = new LirInstruction(opcode, operands);
+        return comment.isEmpty() ? instruction : instruction.withComment(comment);
+    }
+
+    private static LirInstruction label(String comment, String name) {
+        return instruction(comment, LirOpcode.LABEL, LirOperand.label(name));
+    }
+
+    private static LirInstruction jump(String comment, LirOpcode opcode, String label) {
+        return instruction(comment, opcode, LirOperand.label(label));
+    }
+
+    /**
+     * Move the result of an expression into a register
+     */
+    private static LirInstruction move(String comment, RetObject source, Register target) {
+        return instruction(comment, moveOpcode(source), source.getResultOperand(), register(target));
+    }
+
+    /**
+     * Store a value into the location an expression designates
+     */
+    private static LirInstruction store(String comment, LirOperand value, RetObject destination) {
+        return instruction(comment, moveOpcode(destination), value, destination.getResultOperand());
+    }
+
+    private static LirInstruction check(String comment, String check, String param, LirOperand value) {
+        LirOperand call = LirOperand.call(LirOperand.label(check),
+                Collections.singletonList(param), Collections.singletonList(value));
+        return instruction(comment, LirOpcode.STATIC_CALL, call, DUMMY);
+    }
+
+    private static LirInstruction checkArrayAccess(String comment, LirOperand array, LirOperand index) {
+        LirOperand call = LirOperand.call(LirOperand.label("__checkArrayAccess"),
+                Arrays.asList("a", "i"), Arrays.asList(array, index));
+        return instruction(comment, LirOpcode.STATIC_CALL, call, DUMMY);
+    }
+
+    private static LirOperand libraryCall(String name, LirOperand... arguments) {
+        return LirOperand.call(LirOperand.label(name),
+                Collections.<String>nCopies(arguments.length, null), Arrays.asList(arguments));
+    }
+
+    /**
+     * Get the operands of the call arguments, fields and array elements are passed
+     * through the register they were loaded into
+     */
+    private static List<LirOperand> arguments(List<RetObject> argObjs, List<Register> argRegisters) {
+        List<LirOperand> arguments = new ArrayList<>();
+
+        for (int i = 0; i < argObjs.size(); i++) {
+            RetObject argObj = argObjs.get(i);
+            arguments.add(argObj.isField() || argObj.isArray() ? register(argRegisters.get(i)) : argObj.getResultOperand());
         }
 
-        return moveString;
+        return arguments;
+    }
+
+    private static LirOperand register(Register register) {
+        return LirOperand.register(register.toString());
     }
 
     private void printToConsole(String print) {
@@ -4,6 +4,11 @@ public class Register {
 
 	private int number;
 	private Object value;
+
+	/**
+	 * The registers the register belongs to, told about every value change to keep its index
+	 */
+	private RegistersInformation owner;
 	
 	public Register(int number, Object value) {
 		super();
@@ -11,6 +16,11 @@ public class Register {
 		this.value = value;
 	}
 
+	Register(int number, RegistersInformation owner) {
+		this.number = number;
+		this.owner = owner;
+	}
+
 	public int getNumber() {
 		return number;
 	}
@@ -20,7 +30,12 @@ public class Register {
 	}
 
 	public void setValue(Object value) {
+		Object previous = this.value;
 		this.value = value;
+
+		if (owner != null) {
+			owner.valueChanged(this, previous);
+		}
 	}
 	
 	public boolean isAvailable() {
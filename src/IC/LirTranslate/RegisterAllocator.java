@@ -0,0 +1,273 @@
+package IC.LirTranslate;
+
+import IC.Lir.LirInstruction;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * RegisterAllocator class - renames the registers of a translated method by coloring
+ * its interference graph (Chaitin/Briggs: build, coalesce, simplify and select),
+ * so the method uses as few distinct registers as possible
+ */
+public class RegisterAllocator {
+
+    private final List<LirInstruction> instructions;
+
+    /**
+     * The interference graph, each register with the registers it can't share a color with
+     */
+    private final Map<String, Set<String>> graph;
+
+    /**
+     * The register each coalesced register was merged into
+     */
+    private final Map<String, String> alias;
+
+    /**
+     * The register moves, candidates for coalescing
+     */
+    private final List<LirInstruction> moves;
+
+    /**
+     * The number of colors, starts at the register pressure of the method
+     */
+    private int colorsCount;
+
+    /**
+     * RegisterAllocator constructor
+     * @param instructions the instructions of a single method
+     */
+    public RegisterAllocator(List<LirInstruction> instructions) {
+        this.instructions = instructions;
+        this.graph = new LinkedHashMap<>();
+        this.alias = new HashMap<>();
+        this.moves = new ArrayList<>();
+        this.colorsCount = 1;
+    }
+
+    /**
+     * Allocate the registers of the method
+     * @return the instructions with the allocated registers, without the moves that coalescing made redundant
+     */
+    public List<LirInstruction> allocate() {
+        LivenessAnalysis liveness = new LivenessAnalysis(instructions);
+        liveness.analyze();
+
+        build(liveness);
+        coalesce();
+
+        Map<String, Integer> colors = select(simplify());
+        Map<String, String> names = new HashMap<>();
+
+        for (String register : alias.keySet()) {
+            names.put(register, "R" + (colors.get(find(register)) + 1));
+        }
+
+        for (String register : graph.keySet()) {
+            names.put(register, "R" + (colors.get(register) + 1));
+        }
+
+        List<LirInstruction> allocated = new ArrayList<>();
+
+        for (LirInstruction instruction : instructions) {
+            LirInstruction renamed = instruction.renameRegisters(names);
+
+            if (!renamed.isRegisterMove() || !renamed.getOperand(0).equals(renamed.getOperand(1))) {
+                allocated.add(renamed);
+            }
+        }
+
+        return allocated;
+    }
+
+    /**
+     * Build the interference graph, a defined register interferes with every register live after the definition
+     */
+    private void build(LivenessAnalysis liveness) {
+        for (int id = 0; id < liveness.getRegistersCount(); id++) {
+            addNode(liveness.getRegister(id));
+        }
+
+        for (int i = 0; i < instructions.size(); i++) {
+            LirInstruction instruction = instructions.get(i);
+            BitSet liveOut = liveness.getLiveOut(i);
+            int defined = liveness.getDefined(i);
+
+            colorsCount = Math.max(colorsCount, liveOut.cardinality() + (defined >= 0 && !liveOut.get(defined) ? 1 : 0));
+
+            if (defined < 0) {
+                continue;
+            }
+
+            /* the source of a move doesn't interfere with its destination, they may share a register */
+            int source = -1;
+
+            if (instruction.isRegisterMove()) {
+                source = liveness.getUsed(i)[0];
+                moves.add(instruction);
+            }
+
+            for (int live = liveOut.nextSetBit(0); live >= 0; live = liveOut.nextSetBit(live + 1)) {
+                if (live != defined && live != source) {
+                    addEdge(liveness.getRegister(defined), liveness.getRegister(live));
+                }
+            }
+        }
+    }
+
+    /**
+     * Merge the registers of a move when it's safe by the Briggs test, the merged register
+     * has less than K neighbors of significant degree, so it doesn't make the graph harder to color
+     */
+    private void coalesce() {
+        boolean changed = true;
+
+        while (changed) {
+            changed = false;
+
+            for (LirInstruction move : moves) {
+                String first = find(move.getOperand(0).getName());
+                String second = find(move.getOperand(1).getName());
+
+                if (first.equals(second) || graph.get(first).contains(second)) {
+                    continue;
+                }
+
+                Set<String> neighbors = new HashSet<>(graph.get(first));
+                neighbors.addAll(graph.get(second));
+
+                int significant = 0;
+                for (String neighbor : neighbors) {
+                    if (graph.get(neighbor).size() >= colorsCount) {
+                        significant += 1;
+                    }
+                }
+
+                if (significant < colorsCount) {
+                    merge(first, second);
+                    changed = true;
+                }
+            }
+        }
+    }
+
+    private void merge(String into, String register) {
+        for (String neighbor : graph.remove(register)) {
+            graph.get(neighbor).remove(register);
+            addEdge(into, neighbor);
+        }
+
+        alias.put(register, into);
+    }
+
+    /**
+     * Remove the registers from the graph one by one, a register with less than K neighbors
+     * can always be colored. When there's none, the register with the most neighbors
+     * is removed optimistically as a spill candidate
+     * @return the registers in the order they should be colored
+     */
+    private Deque<String> simplify() {
+        Map<String, Integer> degrees = new LinkedHashMap<>();
+        Deque<String> lowDegree = new ArrayDeque<>();
+        Deque<String> stack = new ArrayDeque<>();
+
+        for (Map.Entry<String, Set<String>> node : graph.entrySet()) {
+            degrees.put(node.getKey(), node.getValue().size());
+
+            if (node.getValue().size() < colorsCount) {
+                lowDegree.add(node.getKey());
+            }
+        }
+
+        while (!degrees.isEmpty()) {
+            String register = lowDegree.poll();
+
+            if (register == null) {
+                for (Map.Entry<String, Integer> node : degrees.entrySet()) {
+                    if (register == null || node.getValue() > degrees.get(register)) {
+                        register = node.getKey();
+                    }
+                }
+            } else if (!degrees.containsKey(register)) {
+                continue;
+            }
+
+            degrees.remove(register);
+            stack.push(register);
+
+            for (String neighbor : graph.get(register)) {
+                Integer degree = degrees.get(neighbor);
+
+                if (degree != null) {
+                    degrees.put(neighbor, degree - 1);
+
+                    if (degree == colorsCount) {
+                        lowDegree.add(neighbor);
+                    }
+                }
+            }
+        }
+
+        return stack;
+    }
+
+    /**
+     * Color the registers in the stack order, each with the lowest color its colored neighbors don't have.
+     * microLIR has no limit on the number of registers, so a spilled register gets a new color
+     * instead of being moved to memory
+     * @return the color of each register
+     */
+    private Map<String, Integer> select(Deque<String> stack) {
+        Map<String, Integer> colors = new HashMap<>();
+
+        while (!stack.isEmpty()) {
+            String register = stack.pop();
+            Set<Integer> used = new HashSet<>();
+
+            for (String neighbor : graph.get(register)) {
+                if (colors.containsKey(neighbor)) {
+                    used.add(colors.get(neighbor));
+                }
+            }
+
+            int color = 0;
+            while (used.contains(color)) {
+                color += 1;
+            }
+
+            colorsCount = Math.max(colorsCount, color + 1);
+            colors.put(register, color);
+        }
+
+        return colors;
+    }
+
+    private String find(String register) {
+        while (alias.containsKey(register)) {
+            register = alias.get(register);
+        }
+
+        return register;
+    }
+
+    private void addNode(String register) {
+        if (!graph.containsKey(register)) {
+            graph.put(register, new LinkedHashSet<>());
+        }
+    }
+
+    private void addEdge(String first, String second) {
+        graph.get(first).add(second);
+        graph.get(second).add(first);
+    }
+}
@@ -1,47 +1,74 @@
 package IC.LirTranslate;
 
-import microLIR.instructions.Reg;
-
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * The registers of a translation unit. The free registers are kept in a bitset
+ * and the registers are indexed by their values, so allocating, freeing and
+ * looking up a register don't scan the registers. Registers are added on demand
+ */
 public class RegistersInformation {
 
 	private Register targetRegister;
 	private List<Register> availableRegisters;
-	
+
+	/**
+	 * The free registers, bit i is register i + 1
+	 */
+	private BitSet freeRegisters;
+
+	/**
+	 * The registers holding each value, bit i is register i + 1
+	 */
+	private Map<Object, BitSet> registersByValue;
+
 	public RegistersInformation() {
 		availableRegisters = new ArrayList<>();
+		freeRegisters = new BitSet();
+		registersByValue = new HashMap<>();
 	}
-	
+
+	/**
+	 * Create the first registers, more are added when they're all taken
+	 * @param num the number of registers to create
+	 */
 	public void initRegisters(int num) {
 		for (int i = 0; i < num; i++) {
-			availableRegisters.add(new Register(i + 1, null));
+			addRegister();
 		}
 	}
-	
+
+	private Register addRegister() {
+		Register register = new Register(availableRegisters.size() + 1, this);
+		freeRegisters.set(availableRegisters.size());
+		availableRegisters.add(register);
+
+		return register;
+	}
+
 	public void setTargetRegister(Register targetRegister) {
 		this.targetRegister = targetRegister;
 	}
-	
+
+	/**
+	 * Get the register holding a value, the lowest one if there are several
+	 * @param value the value
+	 * @return the register, <code>null</code> if no register holds the value
+	 */
 	public Register getRegister(String value) {
-		Register register = null;
-		for (Register reg : availableRegisters) {
-			if (reg.getValue() == null) continue;
-			if (reg.getValue().equals(value)) {
-				register = reg;
-				break;
-			}
-		}
+		BitSet registers = registersByValue.get(value);
 
-		return register;
+		return registers == null ? null : availableRegisters.get(registers.nextSetBit(0));
 	}
 
     public Register getRegister(int index) {
-        Register register = availableRegisters.get(index - 1);
-        return (register != null) ? register : null;
+        return availableRegisters.get(index - 1);
     }
-	
+
 	public Register getTargetRegister() {
 
 		if (targetRegister == null) {
@@ -50,36 +77,61 @@ public class RegistersInformation {
 
 		return targetRegister;
 	}
-	
+
 	public void freeRegister(Register register) {
 		register.setValue(null);
 	}
-	
+
+	/**
+	 * Get the lowest free register, a new register is added if there's none
+	 * @return the register
+	 */
 	public Register getAvailableRegiser() {
-		Register register = null;
-		for (Register reg : availableRegisters) {
-			if (reg.isAvailable()) {
-				register = reg;
-				break;
-			}
-		}
-		
-		return register;
+		int index = freeRegisters.nextSetBit(0);
+
+		return index < 0 ? addRegister() : availableRegisters.get(index);
 	}
 
     public void freeAllRegisters() {
-        availableRegisters.forEach(this::freeRegister);
+        for (int index = freeRegisters.nextClearBit(0); index < availableRegisters.size();
+             index = freeRegisters.nextClearBit(index + 1)) {
+            freeRegister(availableRegisters.get(index));
+        }
     }
-	
+
+	/**
+	 * Update the index after the value of a register changed
+	 * @param register the register
+	 * @param previous the previous value of the register
+	 */
+	void valueChanged(Register register, Object previous) {
+		int index = register.getNumber() - 1;
+
+		if (previous != null) {
+			BitSet registers = registersByValue.get(previous);
+			registers.clear(index);
+
+			if (registers.isEmpty()) {
+				registersByValue.remove(previous);
+			}
+		}
+
+		if (register.getValue() != null) {
+			registersByValue.computeIfAbsent(register.getValue(), value -> new BitSet()).set(index);
+		}
+
+		freeRegisters.set(index, register.isAvailable());
+	}
+
 	@Override
 	public String toString() {
 		StringBuffer output = new StringBuffer();
-		
+
 		output.append("Registers:\n");
 		for (Register reg : availableRegisters) {
 			output.append(reg + "=" + reg.getValue() + "\n");
 		}
-		
+
 		if (targetRegister != null) {
 			output.append(targetRegister + "=" + targetRegister.getValue() + " (Target)\n");
 		}
@@ -1,38 +1,103 @@
 package IC.LirTranslate;
 
+import IC.Lir.LirInstruction;
+import IC.Lir.LirOperand;
 import IC.TypeTable.Type;
 
-import java.util.Objects;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
 
 /**
  * RetObject class to pass data between the visitors
  */
 public class RetObject {
 
-	private StringBuffer lirString;
-    private String result;
+	/**
+	 * The instructions and the spliced objects, in order. Splicing an object keeps
+	 * a reference to it, so the instructions are copied only once, when flattened
+	 */
+	private final List<Object> segments;
+    private LirOperand result;
     private String context;
 	private Type type;
     private WhoType whoType;
 	
 	public RetObject() {
-		lirString = new StringBuffer();
+		segments = new ArrayList<>();
 	}
 
     /**
-     * Add lir instruction
-     * @param lir the lir string to add
+     * Add a lir instruction
+     * @param instruction the instruction to add
      */
-	public void addLir(String lir) {
-		this.lirString.append(lir);
+	public void addLir(LirInstruction instruction) {
+		this.segments.add(instruction);
 	}
 
     /**
-     * Get the lir instructions
+     * Add lir instructions
+     * @param instructions the instructions to add
+     */
+	public void addLir(List<LirInstruction> instructions) {
+		this.segments.addAll(instructions);
+	}
+
+    /**
+     * Splice the instructions of another object in O(1), the other object
+     * must not be changed afterwards
+     * @param other the object to take the instructions from
+     */
+	public void addLir(RetObject other) {
+		if (!other.segments.isEmpty()) {
+			this.segments.add(other);
+		}
+	}
+
+    /**
+     * Flatten the lir instructions, including the spliced objects
+     * @return the instructions
+     */
+	public List<LirInstruction> getInstructions() {
+		List<LirInstruction> instructions = new ArrayList<>();
+		Deque<Iterator<Object>> stack = new ArrayDeque<>();
+		stack.push(segments.iterator());
+
+		/* iterative, deeply nested expressions must not overflow the stack */
+		while (!stack.isEmpty()) {
+			Iterator<Object> iterator = stack.peek();
+
+			if (!iterator.hasNext()) {
+				stack.pop();
+				continue;
+			}
+
+			Object segment = iterator.next();
+
+			if (segment instanceof RetObject) {
+				stack.push(((RetObject) segment).segments.iterator());
+			} else {
+				instructions.add((LirInstruction) segment);
+			}
+		}
+
+		return instructions;
+	}
+
+    /**
+     * Get the lir instructions as text
      * @return the instructions
      */
 	public String getLir() {
-		return lirString.toString();
+		StringBuffer output = new StringBuffer();
+
+		for (LirInstruction instruction : getInstructions()) {
+			output.append(instruction).append("\n");
+		}
+
+		return output.toString();
 	}
 
     /**
@@ -87,11 +152,27 @@ public class RetObject {
         return this.whoType;
     }
 
+    /**
+     * Get the location of the object's value as written in lir, e.g. <code>R1.2</code>
+     * @return the location text, <code>null</code> if the object has no value
+     */
     public String getResult() {
+        return this.result != null ? this.result.toString() : null;
+    }
+
+    /**
+     * Get the location of the object's value
+     * @return the location operand, <code>null</code> if the object has no value
+     */
+    public LirOperand getResultOperand() {
         return this.result;
     }
 
-    public void setResult(String result) {
+    /**
+     * Sets the location of the object's value
+     * @param result the register, local, literal, field or array element holding the value
+     */
+    public void setResult(LirOperand result) {
         this.result = result;
     }
 	
@@ -112,7 +193,7 @@ public class RetObject {
 		if (isLiteral() || isMemory()) {
 			return context.toString();
 		} else {
-			return lirString.toString();
+			return getLir();
 		}
 	}
 
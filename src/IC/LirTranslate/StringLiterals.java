@@ -5,7 +5,8 @@ import java.util.LinkedHashMap;
 import java.util.Map.Entry;
 
 /**
- * StringLiterals class to manage the string literals in the code
+ * StringLiterals class to manage the string literals in the code,
+ * shared by the translation units of a program
  */
 public class StringLiterals {
 	
@@ -19,7 +20,7 @@ public class StringLiterals {
 		this.stringLiterals = new LinkedHashMap<>();
 	}
 	
-	public String addStringlIteral(String value) {
+	public synchronized String addStringlIteral(String value) {
 		String currentId = name + stringId;
 		
 		if (!stringLiterals.containsKey(value)) {
@@ -33,7 +34,7 @@ public class StringLiterals {
 	}
 	
 	@Override
-	public String toString() {
+	public synchronized String toString() {
 		StringBuffer output = new StringBuffer();
 
 		for (Entry<String, String> entry : stringLiterals.entrySet()) {
@@ -0,0 +1,257 @@
+package IC.LirTranslate;
+
+import IC.AST.*;
+import IC.LiteralTypes;
+
+/**
+ * StringLiterals collector visitor, in order to name every string literal
+ * of the program before the classes are translated in parallel,
+ * so the literal names don't depend on the translation order
+ */
+public class StringLiteralsCollector implements Visitor {
+
+    private final StringLiterals stringLiterals;
+
+    public StringLiteralsCollector(StringLiterals stringLiterals) {
+        this.stringLiterals = stringLiterals;
+    }
+
+    public void collect(ASTNode root) {
+        root.accept(this);
+    }
+
+    @Override
+    public Object visit(Program program) {
+        program.getClasses().stream().filter(icClass -> !icClass.getName().equals("Library")).forEach(icClass -> {
+            icClass.accept(this);
+        });
+
+        return null;
+    }
+
+    @Override
+    public Object visit(ICClass icClass) {
+        for (Method method : icClass.getMethods()) {
+            method.accept(this);
+        }
+
+        return null;
+    }
+
+    @Override
+    public Object visit(Field field) {
+        return null;
+    }
+
+    @Override
+    public Object visit(VirtualMethod method) {
+        for (Statement stmt : method.getStatements()) {
+            stmt.accept(this);
+        }
+
+        return null;
+    }
+
+    @Override
+    public Object visit(StaticMethod method) {
+        for (Statement stmt : method.getStatements()) {
+            stmt.accept(this);
+        }
+
+        return null;
+    }
+
+    @Override
+    public Object visit(LibraryMethod method) {
+        return null;
+    }
+
+    @Override
+    public Object visit(Formal formal) {
+        return null;
+    }
+
+    @Override
+    public Object visit(PrimitiveType type) {
+        return null;
+    }
+
+    @Override
+    public Object visit(UserType type) {
+        return null;
+    }
+
+    @Override
+    public Object visit(Assignment assignment) {
+        assignment.getAssignment().accept(this);
+        assignment.getVariable().accept(this);
+
+        return null;
+    }
+
+    @Override
+    public Object visit(CallStatement callStatement) {
+        return callStatement.getCall().accept(this);
+    }
+
+    @Override
+    public Object visit(Return returnStatement) {
+        if (returnStatement.hasValue()) {
+            returnStatement.getValue().accept(this);
+        }
+
+        return null;
+    }
+
+    @Override
+    public Object visit(If ifStatement) {
+        ifStatement.getCondition().accept(this);
+        ifStatement.getOperation().accept(this);
+
+        if (ifStatement.hasElse()) {
+            ifStatement.getElseOperation().accept(this);
+        }
+
+        return null;
+    }
+
+    @Override
+    public Object visit(While whileStatement) {
+        whileStatement.getCondition().accept(this);
+        whileStatement.getOperation().accept(this);
+
+        return null;
+    }
+
+    @Override
+    public Object visit(Break breakStatement) {
+        return null;
+    }
+
+    @Override
+    public Object visit(Continue continueStatement) {
+        return null;
+    }
+
+    @Override
+    public Object visit(StatementsBlock statementsBlock) {
+        for (Statement stmt : statementsBlock.getStatements()) {
+            stmt.accept(this);
+        }
+
+        return null;
+    }
+
+    @Override
+    public Object visit(LocalVariable localVariable) {
+        if (localVariable.hasInitValue()) {
+            localVariable.getInitValue().accept(this);
+        }
+
+        return null;
+    }
+
+    @Override
+    public Object visit(VariableLocation location) {
+        if (location.isExternal()) {
+            location.getLocation().accept(this);
+        }
+
+        return null;
+    }
+
+    @Override
+    public Object visit(ArrayLocation location) {
+        location.getArray().accept(this);
+        location.getIndex().accept(this);
+
+        return null;
+    }
+
+    @Override
+    public Object visit(StaticCall call) {
+        for (Expression argument : call.getArguments()) {
+            argument.accept(this);
+        }
+
+        return null;
+    }
+
+    @Override
+    public Object visit(VirtualCall call) {
+        if (call.isExternal()) {
+            call.getLocation().accept(this);
+        }
+
+        for (Expression argument : call.getArguments()) {
+            argument.accept(this);
+        }
+
+        return null;
+    }
+
+    @Override
+    public Object visit(This thisExpression) {
+        return null;
+    }
+
+    @Override
+    public Object visit(NewClass newClass) {
+        return null;
+    }
+
+    @Override
+    public Object visit(NewArray newArray) {
+        return newArray.getSize().accept(this);
+    }
+
+    @Override
+    public Object visit(Length length) {
+        return length.getArray().accept(this);
+    }
+
+    @Override
+    public Object visit(MathBinaryOp binaryOp) {
+        binaryOp.getFirstOperand().accept(this);
+        binaryOp.getSecondOperand().accept(this);
+
+        return null;
+    }
+
+    @Override
+    public Object visit(LogicalBinaryOp binaryOp) {
+        binaryOp.getFirstOperand().accept(this);
+        binaryOp.getSecondOperand().accept(this);
+
+        return null;
+    }
+
+    @Override
+    public Object visit(MathUnaryOp unaryOp) {
+        return unaryOp.getOperand().accept(this);
+    }
+
+    @Override
+    public Object visit(LogicalUnaryOp unaryOp) {
+        return unaryOp.getOperand().accept(this);
+    }
+
+    @Override
+    public Object visit(Literal literal) {
+        if (literal.getType() == LiteralTypes.STRING) {
+            stringLiterals.addStringlIteral(literal.getValue().toString());
+        }
+
+        return null;
+    }
+
+    @Override
+    public Object visit(ExpressionBlock expressionBlock) {
+        return expressionBlock.getExpression().accept(this);
+    }
+
+    @Override
+    public Object visit(FieldOrMethod fieldOrMethod) {
+        return null;
+    }
+}
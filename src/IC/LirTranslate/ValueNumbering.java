@@ -0,0 +1,411 @@
+package IC.LirTranslate;
+
+import IC.Lir.BasicBlock;
+import IC.Lir.LirInstruction;
+import IC.Lir.LirOpcode;
+import IC.Lir.LirOperand;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Value numbering of a translated method, every register and local gets the number
+ * of the value it holds, and equal computations get equal numbers. A pure computation,
+ * an arithmetic instruction, a <code>MoveField</code> or <code>MoveArray</code> load or an
+ * <code>ArrayLength</code>, whose value is already held by a register or a local becomes
+ * a <code>Move</code> of it, or is removed if its destination already holds it.
+ * A runtime check of values that were already checked is removed as well.
+ * Loads are numbered with the version of the memory they read, a store into a field
+ * makes a new version of that field, a store into an array a new version of the arrays,
+ * and a call a new version of the entire heap.
+ * The numbering runs over the blocks in reverse postorder, a block continues the
+ * numbering its predecessors agree on when they were all visited before it, so only
+ * loop headers start over
+ */
+public class ValueNumbering {
+
+    private final List<LirInstruction> instructions;
+
+    /**
+     * The number of each computation, a computation is written with the numbers of its operands
+     */
+    private final Map<String, Integer> numbers;
+
+    /**
+     * The operand of each register and local that was numbered, by its name
+     */
+    private final Map<String, LirOperand> locations;
+
+    private int valuesCount;
+
+    /**
+     * ValueNumbering constructor
+     * @param instructions the instructions of a single method
+     */
+    public ValueNumbering(List<LirInstruction> instructions) {
+        this.instructions = instructions;
+        this.numbers = new HashMap<>();
+        this.locations = new HashMap<>();
+        this.valuesCount = 0;
+    }
+
+    /**
+     * Number the values of the method and reuse the computed ones
+     * @return the rewritten instructions
+     */
+    public List<LirInstruction> number() {
+        List<BasicBlock> blocks = BasicBlock.build(instructions);
+        Values[] blockOut = new Values[blocks.size()];
+        List<List<LirInstruction>> blockCode = new ArrayList<>(Collections.nCopies(blocks.size(), null));
+
+        for (BasicBlock block : reversePostorder(blocks)) {
+            Values values = blockIn(block, blockOut);
+            List<LirInstruction> code = new ArrayList<>();
+
+            for (LirInstruction instruction : block.getInstructions()) {
+                LirInstruction numbered = number(instruction, values);
+
+                if (numbered != null) {
+                    code.add(numbered);
+                }
+            }
+
+            blockOut[block.getId()] = values;
+            blockCode.set(block.getId(), code);
+        }
+
+        List<LirInstruction> numbered = new ArrayList<>();
+
+        for (BasicBlock block : blocks) {
+            /* unreachable blocks are kept as they are */
+            numbered.addAll(blockCode.get(block.getId()) != null ? blockCode.get(block.getId()) : block.getInstructions());
+        }
+
+        return numbered;
+    }
+
+    private static List<BasicBlock> reversePostorder(List<BasicBlock> blocks) {
+        List<BasicBlock> postorder = new ArrayList<>();
+
+        if (blocks.isEmpty()) {
+            return postorder;
+        }
+
+        boolean[] visited = new boolean[blocks.size()];
+        Deque<BasicBlock> stack = new ArrayDeque<>();
+        Deque<Integer> nextSuccessor = new ArrayDeque<>();
+
+        visited[0] = true;
+        stack.push(blocks.get(0));
+        nextSuccessor.push(0);
+
+        while (!stack.isEmpty()) {
+            BasicBlock block = stack.peek();
+            int next = nextSuccessor.pop();
+
+            if (next < block.getSuccessors().size()) {
+                nextSuccessor.push(next + 1);
+                BasicBlock successor = block.getSuccessors().get(next);
+
+                if (!visited[successor.getId()]) {
+                    visited[successor.getId()] = true;
+                    stack.push(successor);
+                    nextSuccessor.push(0);
+                }
+            } else {
+                postorder.add(stack.pop());
+            }
+        }
+
+        List<BasicBlock> order = new ArrayList<>(postorder);
+        Collections.reverse(order);
+        return order;
+    }
+
+    /**
+     * Get the values at the start of a block, the values all its predecessors agree on.
+     * A predecessor that wasn't visited yet is on a back edge, the block starts over
+     */
+    private static Values blockIn(BasicBlock block, Values[] blockOut) {
+        if (block.getId() == 0 || block.getPredecessors().isEmpty()) {
+            return new Values();
+        }
+
+        Values values = null;
+
+        for (BasicBlock predecessor : block.getPredecessors()) {
+            Values out = blockOut[predecessor.getId()];
+
+            if (out == null) {
+                return new Values();
+            }
+
+            values = values == null ? out.copy() : values.intersect(out);
+        }
+
+        return values;
+    }
+
+    /**
+     * Number a single instruction
+     * @param values the values of the locations before the instruction, updated to the values after it
+     * @return the instruction, a <code>Move</code> that replaces it or <code>null</code> if it's redundant
+     */
+    private LirInstruction number(LirInstruction instruction, Values values) {
+        List<LirOperand> operands = instruction.getOperands();
+        LirOpcode opcode = instruction.getOpcode();
+
+        switch (opcode) {
+            case RAW:
+                if (!instruction.toString().trim().startsWith("#")) {
+                    /* an instruction that isn't understood may write anything */
+                    values.clear();
+                }
+                return instruction;
+            case MOVE: {
+                LirOperand destination = operands.get(1);
+                int value = valueOf(operands.get(0), values);
+
+                if (Integer.valueOf(value).equals(values.get(destination.getName()))) {
+                    return null;
+                }
+
+                values.set(locationOf(destination), value);
+                return instruction;
+            }
+            case MOVE_FIELD:
+            case MOVE_ARRAY:
+                if (operands.get(0).getKind() == LirOperand.Kind.FIELD || operands.get(0).getKind() == LirOperand.Kind.ARRAY) {
+                    return compute(instruction, loadOf(operands.get(0), values), values);
+                }
+
+                LirOperand location = operands.get(1);
+                values.set(location.getKind() == LirOperand.Kind.ARRAY ? "$array" : "$field." + location.getIndex(), newValue());
+
+                /* a load right after the store reads the stored value */
+                numbers.put(loadOf(location, values), valueOf(operands.get(0), values));
+                return instruction;
+            case ARRAY_LENGTH:
+                /* the length of an array never changes */
+                return compute(instruction, "ArrayLength " + valueOf(operands.get(0), values), values);
+            case ADD: case MUL: case AND: case OR: case XOR: {
+                int first = valueOf(operands.get(0), values);
+                int second = valueOf(operands.get(1), values);
+                return compute(instruction, opcode + " " + Math.min(first, second) + " " + Math.max(first, second), values);
+            }
+            case SUB: case DIV: case MOD:
+                return compute(instruction, opcode + " " + valueOf(operands.get(1), values) + " " + valueOf(operands.get(0), values), values);
+            case INC: case DEC: case NEG: case NOT:
+                return compute(instruction, opcode + " " + valueOf(operands.get(0), values), values);
+            case STATIC_CALL:
+            case VIRTUAL_CALL:
+            case LIBRARY:
+                if (isCheck(instruction)) {
+                    /* a check of the same values passes again */
+                    return values.check(checkOf(operands.get(0), values)) ? instruction : null;
+                }
+
+                values.set("$heap", newValue());
+
+                if (instruction.getDefinedRegister() != null) {
+                    values.set(locationOf(instruction.getDestination()), newValue());
+                }
+                return instruction;
+            default:
+                return instruction;
+        }
+    }
+
+    /**
+     * Number a pure computation, and reuse its value if a location holds it
+     * @param key the computation, written with the numbers of its operands
+     */
+    private LirInstruction compute(LirInstruction instruction, String key, Values values) {
+        LirOperand destination = instruction.getDestination();
+        Integer value = numbers.get(key);
+
+        if (value == null) {
+            value = newValue();
+            numbers.put(key, value);
+        } else if (value.equals(values.get(destination.getName()))) {
+            return null;
+        } else {
+            String holder = values.holder(value);
+
+            if (holder != null) {
+                instruction = new LirInstruction(LirOpcode.MOVE, locations.get(holder), destination);
+            }
+        }
+
+        values.set(locationOf(destination), value);
+        return instruction;
+    }
+
+    private String loadOf(LirOperand location, Values values) {
+        if (location.getKind() == LirOperand.Kind.ARRAY) {
+            return "MoveArray " + valueOf(location.getBase(), values) + "[" + valueOf(location.getIndex(), values) + "] "
+                    + valueOf("$heap", values) + " " + valueOf("$array", values);
+        }
+
+        return "MoveField " + valueOf(location.getBase(), values) + "." + location.getIndex() + " "
+                + valueOf("$heap", values) + " " + valueOf("$field." + location.getIndex(), values);
+    }
+
+    private String checkOf(LirOperand call, Values values) {
+        StringBuilder check = new StringBuilder(call.getBase().getName());
+
+        for (LirOperand argument : call.getArguments()) {
+            check.append(" ").append(valueOf(argument, values));
+        }
+
+        return check.toString();
+    }
+
+    /**
+     * Whether the instruction is a call of a runtime check, it either returns or exits the program
+     */
+    private static boolean isCheck(LirInstruction instruction) {
+        return instruction.getOpcode() == LirOpcode.STATIC_CALL && instruction.getOperand(0).getBase().getName().startsWith("__check");
+    }
+
+    private int valueOf(LirOperand operand, Values values) {
+        switch (operand.getKind()) {
+            case IMMEDIATE:
+                return constantOf("#" + operand.getName());
+            case LABEL:
+                return constantOf(operand.getName());
+            default:
+                return valueOf(locationOf(operand), values);
+        }
+    }
+
+    /**
+     * Get the name of a register or a local, and remember its operand
+     */
+    private String locationOf(LirOperand operand) {
+        locations.put(operand.getName(), operand);
+        return operand.getName();
+    }
+
+    /**
+     * Get the value of a location, a location that wasn't numbered yet gets a new value
+     */
+    private int valueOf(String location, Values values) {
+        Integer value = values.get(location);
+
+        if (value == null) {
+            value = newValue();
+            values.set(location, value);
+        }
+
+        return value;
+    }
+
+    private int constantOf(String constant) {
+        Integer value = numbers.get(constant);
+
+        if (value == null) {
+            value = newValue();
+            numbers.put(constant, value);
+        }
+
+        return value;
+    }
+
+    private int newValue() {
+        return valuesCount++;
+    }
+
+    /**
+     * The values of the registers, the locals and the memory versions at some point of the method,
+     * and the runtime checks that passed. Memory versions are named with a leading <code>$</code>
+     */
+    private static class Values {
+
+        private final Map<String, Integer> values;
+        private final Map<Integer, Set<String>> holders;
+        private final Set<String> checks;
+
+        Values() {
+            this.values = new HashMap<>();
+            this.holders = new HashMap<>();
+            this.checks = new HashSet<>();
+        }
+
+        Integer get(String location) {
+            return values.get(location);
+        }
+
+        void set(String location, int value) {
+            Integer previous = values.put(location, value);
+
+            if (previous != null) {
+                holders.get(previous).remove(location);
+            }
+
+            holders.computeIfAbsent(value, number -> new LinkedHashSet<>()).add(location);
+        }
+
+        /**
+         * Get a register or a local that holds a value
+         * @return the location name, <code>null</code> if none holds it
+         */
+        String holder(int value) {
+            for (String location : holders.getOrDefault(value, new HashSet<>())) {
+                if (!location.startsWith("$")) {
+                    return location;
+                }
+            }
+
+            return null;
+        }
+
+        /**
+         * Record a runtime check
+         * @return <code>false</code> if the check already passed
+         */
+        boolean check(String check) {
+            return checks.add(check);
+        }
+
+        void clear() {
+            values.clear();
+            holders.clear();
+            checks.clear();
+        }
+
+        Values copy() {
+            Values copy = new Values();
+
+            for (Map.Entry<String, Integer> value : values.entrySet()) {
+                copy.set(value.getKey(), value.getValue());
+            }
+
+            copy.checks.addAll(checks);
+            return copy;
+        }
+
+        /**
+         * Keep only the values and checks another point agrees on
+         * @return this values
+         */
+        Values intersect(Values other) {
+            for (String location : new ArrayList<>(values.keySet())) {
+                if (!values.get(location).equals(other.values.get(location))) {
+                    holders.get(values.remove(location)).remove(location);
+                }
+            }
+
+            checks.retainAll(other.checks);
+            return this;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package IC.SemanticAnalysis;
 
+import IC.TypeTable.TypeTable;
+
 public class ClassSymbolTable extends SymbolTable {
 	
 	public ClassSymbolTable(String id) {
@@ -7,13 +9,13 @@ public class ClassSymbolTable extends SymbolTable {
 	}
 	
 	@Override
-	public void AddUniqueTypes() {
+	public void AddUniqueTypes(TypeTable typeTable) {
 		
 		//TypeTable.addClassType((ClassType)this.getParentSymbolTable().lookup(getId()).getType());
 		
 		if (getChildList().size() > 0) {
 			for (SymbolTable child : getChildList()) {
-				child.AddUniqueTypes();	
+				child.AddUniqueTypes(typeTable);	
 			}
 		}
 	}
@@ -1,5 +1,7 @@
 package IC.SemanticAnalysis;
 
+import IC.TypeTable.TypeTable;
+
 public class GlobalSymbolTable extends SymbolTable {
 
 	private String ICFileName;
@@ -10,10 +12,10 @@ public class GlobalSymbolTable extends SymbolTable {
 	}
 
 	@Override
-	public void AddUniqueTypes() {
+	public void AddUniqueTypes(TypeTable typeTable) {
 		if (getChildList().size() > 0) {
 			for (SymbolTable child : getChildList()) {
-				child.AddUniqueTypes();	
+				child.AddUniqueTypes(typeTable);	
 			}
 		}
 	}
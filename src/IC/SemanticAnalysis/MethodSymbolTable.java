@@ -27,20 +27,20 @@ public class MethodSymbolTable extends SymbolTable {
     }
 
 	@Override
-	public void AddUniqueTypes() {
+	public void AddUniqueTypes(TypeTable typeTable) {
 		MethodType methodType = ((MethodType)this.getParentSymbolTable().lookup(getId()).getType());
 		
 		for (Type paramType : methodType.getParamType()) {
 			if (paramType instanceof ArrayType) {
-				TypeTable.addArrayType((ArrayType)paramType);
+				typeTable.addArrayType((ArrayType)paramType);
 			}
 		}
 		
 		if (methodType.getReturnType() instanceof ArrayType) {
-			TypeTable.addArrayType((ArrayType)methodType.getReturnType());
+			typeTable.addArrayType((ArrayType)methodType.getReturnType());
 		}
 		
-		TypeTable.addMethodType(getId(), methodType);
+		typeTable.addMethodType(getId(), methodType);
 		
 		Type myType;
 		if (entries.size() > 0) {
@@ -48,7 +48,7 @@ public class MethodSymbolTable extends SymbolTable {
 				myType = entry.getValue().getType();
 				
 				if (myType instanceof ArrayType) {
-					TypeTable.addArrayType((ArrayType)myType);
+					typeTable.addArrayType((ArrayType)myType);
 				}
 			}
 		}
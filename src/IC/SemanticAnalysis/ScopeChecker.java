@@ -50,9 +50,11 @@ public class ScopeChecker implements PropagatingVisitor<SymbolTable, Object>,
 	private StringBuffer errors;
 	private int loopCounter;
 	private ASTNode root;
+	private TypeTable typeTable;
 
-	public ScopeChecker(ASTNode root) {
+	public ScopeChecker(ASTNode root, TypeTable typeTable) {
 		this.root = root;
+		this.typeTable = typeTable;
 		errors = new StringBuffer();
 	}
 
@@ -89,11 +91,7 @@ public class ScopeChecker implements PropagatingVisitor<SymbolTable, Object>,
 	@Override
 	public Object visit(Break breakStatement, SymbolTable context)
 			throws Exception {
-		if (loopCounter == 0) {
-			errors.append("SemanticError: 'break' must be inside a loop at line "
-					+ breakStatement.getLine() + "\n");
-		}
-
+		checkBreak(breakStatement);
 		return null;
 	}
 
@@ -107,11 +105,7 @@ public class ScopeChecker implements PropagatingVisitor<SymbolTable, Object>,
 	@Override
 	public Object visit(Continue continueStatement, SymbolTable context)
 			throws Exception {
-		if (loopCounter == 0) {
-			errors.append("SemanticError: 'continue' must be inside a loop at line "
-					+ continueStatement.getLine() + "\n");
-		}
-
+		checkContinue(continueStatement);
 		return null;
 	}
 
@@ -124,18 +118,7 @@ public class ScopeChecker implements PropagatingVisitor<SymbolTable, Object>,
 
 	@Override
 	public Object visit(Field field, SymbolTable context) throws Exception {
-		int counter = 0;
-
-		for (Entry<String, SymbolTableRow> entry : context.getIterator()) {
-			if (entry.getKey().equals(field.getName())) {
-				counter++;
-			}
-		}
-
-		if (counter > 1) {
-			errors.append("Error");
-		}
-
+		checkField(field, context);
 		return null;
 	}
 
@@ -155,31 +138,8 @@ public class ScopeChecker implements PropagatingVisitor<SymbolTable, Object>,
 	@Override
 	public Object visit(ICClass icClass, SymbolTable context) throws Exception {
 		SymbolTable myTable = icClass.enclosingScope();
-		SymbolTable parentTable = myTable.getParentSymbolTable();
-		SymbolTable myParentParentTable;
 
-		if (myTable.getId().equals(parentTable.getId())) {
-			errors.append("SemanticError: cyclic inheritance detected! at line "
-					+ icClass.getLine() + "\n");
-		} else {
-			while (parentTable.getParentSymbolTable() != null) {
-				myParentParentTable = parentTable.getParentSymbolTable();
-
-				if (myTable.getId().equals(parentTable.getId())) {
-					errors.append("SemanticError: cyclic inheritance detected! at line "
-							+ icClass.getLine() + "\n");
-					break;
-				} else {
-					if (parentTable.getId().equals(myParentParentTable.getId())) {
-						errors.append("SemanticError: cyclic inheritance detected! at line "
-								+ icClass.getLine() + "\n");
-						break;
-					} else {
-						parentTable = parentTable.getParentSymbolTable();
-					}
-				}
-			}
-		}
+		checkClass(icClass);
 
 		for (Field field : icClass.getFields()) {
 			field.accept(this, myTable);
@@ -233,11 +193,7 @@ public class ScopeChecker implements PropagatingVisitor<SymbolTable, Object>,
 			localVariable.getInitValue().accept(this, context);
 		}
 
-		if (context.lookup(localVariable.getName()) == null) {
-			errors.append("SemanticError: undefined local variable '"
-					+ localVariable.getName() + "' at line "
-					+ localVariable.getLine() + "\n");
-		}
+		checkLocalVariable(localVariable, context);
 
 		return localVariable.getName();
 	}
@@ -350,16 +306,7 @@ public class ScopeChecker implements PropagatingVisitor<SymbolTable, Object>,
 	@Override
 	public Object visit(This thisExpression, SymbolTable context)
 			throws Exception {
-		SymbolTable thisScope = context;
-
-		while (thisScope.getKind() == Kind.BLOCK) {
-			thisScope = thisScope.getParentSymbolTable();
-		}
-
-		if (((MethodType) thisScope.getType()).isStatic()) {
-			errors.append("SemanticError: 'this' must be only in virtual methods at line "
-					+ thisExpression.getLine() + "\n");
-		}
+		checkThis(thisExpression, context);
 
 		return "$this";
 	}
@@ -377,19 +324,10 @@ public class ScopeChecker implements PropagatingVisitor<SymbolTable, Object>,
 		if (location.isExternal()) {
 			String external = (String) location.getLocation().accept(this, context);
 
-			ClassType classType = TypeTable.getClassType(context.lookup(external).getType().getName());
-			
-			if (classType.getClassAST().enclosingScope().lookup(location.getName()) == null) {
-				errors.append("SemanticError: undefined variable '"
-						+ location.getName() + "' at line " + location.getLine()
-						+ "\n");
-			}
+			ClassType classType = typeTable.getClassType(context.lookup(external).getType().getName());
+			checkExternalVariable(location, classType);
 		} else {
-            if (context.lookup(location.getName()) == null) {
-				errors.append("SemanticError: undefined variable '"
-						+ location.getName() + "' at line " + location.getLine()
-						+ "\n");
-			}
+			checkVariable(location);
 		}
 
 		return location.getName();
@@ -400,10 +338,7 @@ public class ScopeChecker implements PropagatingVisitor<SymbolTable, Object>,
 		if (call.isExternal()) {
 			call.getLocation().accept(this, context);
 		} else {
-			if (context.lookup(call.getName()) == null) {
-				errors.append("SemanticError: undefined method '"
-						+ call.getName() + "' at line " + call.getLine() + "\n");
-			}
+			checkCall(call);
 		}
 
 		for (Expression expr : call.getArguments()) {
@@ -430,10 +365,153 @@ public class ScopeChecker implements PropagatingVisitor<SymbolTable, Object>,
 			throws Exception {
 		whileStatement.getCondition().accept(this, context);
 
-		loopCounter += 1;
+		enterLoop();
 		whileStatement.getOperation().accept(this, context);
-		loopCounter -= 1;
+		exitLoop();
 
 		return null;
 	}
-}
\ No newline at end of file
+
+	/*
+	 * The checks of a single node, shared by this visitor and the type analyzer
+	 * when it checks the scopes in the same traversal
+	 */
+
+	void enterLoop() {
+		loopCounter += 1;
+	}
+
+	void exitLoop() {
+		loopCounter -= 1;
+	}
+
+	void checkBreak(Break breakStatement) {
+		if (loopCounter == 0) {
+			errors.append("SemanticError: 'break' must be inside a loop at line "
+					+ breakStatement.getLine() + "\n");
+		}
+	}
+
+	void checkContinue(Continue continueStatement) {
+		if (loopCounter == 0) {
+			errors.append("SemanticError: 'continue' must be inside a loop at line "
+					+ continueStatement.getLine() + "\n");
+		}
+	}
+
+	void checkField(Field field, SymbolTable context) {
+		int counter = 0;
+
+		for (Entry<String, SymbolTableRow> entry : context.getIterator()) {
+			if (entry.getKey().equals(field.getName())) {
+				counter++;
+			}
+		}
+
+		if (counter > 1) {
+			errors.append("Error");
+		}
+	}
+
+	void checkClass(ICClass icClass) {
+		SymbolTable myTable = icClass.enclosingScope();
+		SymbolTable parentTable = myTable.getParentSymbolTable();
+		SymbolTable myParentParentTable;
+
+		if (myTable.getId().equals(parentTable.getId())) {
+			errors.append("SemanticError: cyclic inheritance detected! at line "
+					+ icClass.getLine() + "\n");
+		} else {
+			while (parentTable.getParentSymbolTable() != null) {
+				myParentParentTable = parentTable.getParentSymbolTable();
+
+				if (myTable.getId().equals(parentTable.getId())) {
+					errors.append("SemanticError: cyclic inheritance detected! at line "
+							+ icClass.getLine() + "\n");
+					break;
+				} else {
+					if (parentTable.getId().equals(myParentParentTable.getId())) {
+						errors.append("SemanticError: cyclic inheritance detected! at line "
+								+ icClass.getLine() + "\n");
+						break;
+					} else {
+						parentTable = parentTable.getParentSymbolTable();
+					}
+				}
+			}
+		}
+	}
+
+	void checkLocalVariable(LocalVariable localVariable, SymbolTable context) {
+		if (context.lookup(localVariable.getName()) == null) {
+			errors.append("SemanticError: undefined local variable '"
+					+ localVariable.getName() + "' at line "
+					+ localVariable.getLine() + "\n");
+		}
+	}
+
+	void checkThis(This thisExpression, SymbolTable context) {
+		SymbolTable thisScope = context;
+
+		while (thisScope.getKind() == Kind.BLOCK) {
+			thisScope = thisScope.getParentSymbolTable();
+		}
+
+		if (((MethodType) thisScope.getType()).isStatic()) {
+			errors.append("SemanticError: 'this' must be only in virtual methods at line "
+					+ thisExpression.getLine() + "\n");
+		}
+	}
+
+	void checkVariable(VariableLocation location) {
+		if (location.getBinding() == null) {
+			errors.append("SemanticError: undefined variable '"
+					+ location.getName() + "' at line " + location.getLine()
+					+ "\n");
+		}
+	}
+
+	void checkExternalVariable(VariableLocation location, ClassType classType) {
+		if (classType.getClassAST().enclosingScope().lookup(location.getName()) == null) {
+			errors.append("SemanticError: undefined variable '"
+					+ location.getName() + "' at line " + location.getLine()
+					+ "\n");
+		}
+	}
+
+	void checkCall(VirtualCall call) {
+		if (call.getBinding() == null) {
+			errors.append("SemanticError: undefined method '"
+					+ call.getName() + "' at line " + call.getLine() + "\n");
+		}
+	}
+
+	/**
+	 * Add the errors another scope checker found, e.g. in a single method
+	 * @param moreErrors the errors
+	 */
+	void appendErrors(String moreErrors) {
+		errors.append(moreErrors);
+	}
+
+	/**
+	 * @return the position of the next error, to reorder the errors found since
+	 */
+	int errorsMark() {
+		return errors.length();
+	}
+
+	/**
+	 * Move the errors found since a mark before the errors found since an earlier mark,
+	 * for a traversal that visits the children in another order than this visitor
+	 * @param earlier the earlier mark
+	 * @param later the later mark
+	 */
+	void moveErrors(int earlier, int later) {
+		if (later < errors.length() && earlier < later) {
+			String moved = errors.substring(later);
+			errors.setLength(later);
+			errors.insert(earlier, moved);
+		}
+	}
+}
@@ -0,0 +1,322 @@
+package IC.SemanticAnalysis;
+
+import IC.AST.ASTNode;
+import IC.AST.ArrayLocation;
+import IC.AST.Assignment;
+import IC.AST.Break;
+import IC.AST.CallStatement;
+import IC.AST.Continue;
+import IC.AST.Expression;
+import IC.AST.ExpressionBlock;
+import IC.AST.Field;
+import IC.AST.FieldOrMethod;
+import IC.AST.Formal;
+import IC.AST.ICClass;
+import IC.AST.If;
+import IC.AST.Length;
+import IC.AST.LibraryMethod;
+import IC.AST.Literal;
+import IC.AST.LocalVariable;
+import IC.AST.LogicalBinaryOp;
+import IC.AST.LogicalUnaryOp;
+import IC.AST.MathBinaryOp;
+import IC.AST.MathUnaryOp;
+import IC.AST.Method;
+import IC.AST.NewArray;
+import IC.AST.NewClass;
+import IC.AST.PrimitiveType;
+import IC.AST.Program;
+import IC.AST.PropagatingVisitor;
+import IC.AST.Return;
+import IC.AST.Statement;
+import IC.AST.StatementsBlock;
+import IC.AST.StaticCall;
+import IC.AST.StaticMethod;
+import IC.AST.This;
+import IC.AST.UserType;
+import IC.AST.VariableLocation;
+import IC.AST.VirtualCall;
+import IC.AST.VirtualMethod;
+import IC.AST.While;
+import IC.TypeTable.ClassType;
+import IC.TypeTable.TypeTable;
+
+/**
+ * Scope Resolver visitor - runs once after the symbol tables are built and binds
+ * every variable and call name to its declaration, so the later passes don't
+ * look the names up again. External names (a.x, a.f()) depend on the type of
+ * their location and are still looked up by the type analyzer
+ */
+public class ScopeResolver implements PropagatingVisitor<SymbolTable, Object> {
+
+	private ASTNode root;
+	private TypeTable typeTable;
+
+	public ScopeResolver(ASTNode root, TypeTable typeTable) {
+		this.root = root;
+		this.typeTable = typeTable;
+	}
+
+	public void resolve() throws Exception {
+		root.accept(this, null);
+	}
+
+	@Override
+	public Object visit(Program program, SymbolTable context) throws Exception {
+		for (ICClass icClass : program.getClasses()) {
+			icClass.accept(this, program.enclosingScope());
+		}
+
+		return null;
+	}
+
+	@Override
+	public Object visit(ICClass icClass, SymbolTable context) throws Exception {
+		for (Method method : icClass.getMethods()) {
+			method.accept(this, icClass.enclosingScope());
+		}
+
+		return null;
+	}
+
+	@Override
+	public Object visit(Field field, SymbolTable context) throws Exception {
+		return null;
+	}
+
+	@Override
+	public Object visit(VirtualMethod method, SymbolTable context)
+			throws Exception {
+		for (Statement stmt : method.getStatements()) {
+			stmt.accept(this, method.enclosingScope());
+		}
+
+		return null;
+	}
+
+	@Override
+	public Object visit(StaticMethod method, SymbolTable context)
+			throws Exception {
+		for (Statement stmt : method.getStatements()) {
+			stmt.accept(this, method.enclosingScope());
+		}
+
+		return null;
+	}
+
+	@Override
+	public Object visit(LibraryMethod method, SymbolTable context)
+			throws Exception {
+		return null;
+	}
+
+	@Override
+	public Object visit(Formal formal, SymbolTable context) throws Exception {
+		return null;
+	}
+
+	@Override
+	public Object visit(PrimitiveType type, SymbolTable context)
+			throws Exception {
+		return null;
+	}
+
+	@Override
+	public Object visit(UserType type, SymbolTable context) throws Exception {
+		return null;
+	}
+
+	@Override
+	public Object visit(Assignment assignment, SymbolTable context)
+			throws Exception {
+		assignment.getVariable().accept(this, context);
+		assignment.getAssignment().accept(this, context);
+		return null;
+	}
+
+	@Override
+	public Object visit(CallStatement callStatement, SymbolTable context)
+			throws Exception {
+		return callStatement.getCall().accept(this, context);
+	}
+
+	@Override
+	public Object visit(Return returnStatement, SymbolTable context)
+			throws Exception {
+		if (returnStatement.hasValue()) {
+			returnStatement.getValue().accept(this, context);
+		}
+
+		return null;
+	}
+
+	@Override
+	public Object visit(If ifStatement, SymbolTable context) throws Exception {
+		ifStatement.getCondition().accept(this, context);
+		ifStatement.getOperation().accept(this, context);
+
+		if (ifStatement.hasElse()) {
+			ifStatement.getElseOperation().accept(this, context);
+		}
+
+		return null;
+	}
+
+	@Override
+	public Object visit(While whileStatement, SymbolTable context)
+			throws Exception {
+		whileStatement.getCondition().accept(this, context);
+		whileStatement.getOperation().accept(this, context);
+		return null;
+	}
+
+	@Override
+	public Object visit(Break breakStatement, SymbolTable context)
+			throws Exception {
+		return null;
+	}
+
+	@Override
+	public Object visit(Continue continueStatement, SymbolTable context)
+			throws Exception {
+		return null;
+	}
+
+	@Override
+	public Object visit(StatementsBlock statementsBlock, SymbolTable context)
+			throws Exception {
+		for (Statement stmt : statementsBlock.getStatements()) {
+			stmt.accept(this, statementsBlock.enclosingScope());
+		}
+
+		return null;
+	}
+
+	@Override
+	public Object visit(LocalVariable localVariable, SymbolTable context)
+			throws Exception {
+		if (localVariable.hasInitValue()) {
+			localVariable.getInitValue().accept(this, context);
+		}
+
+		return null;
+	}
+
+	@Override
+	public Object visit(VariableLocation location, SymbolTable context)
+			throws Exception {
+		if (location.isExternal()) {
+			location.getLocation().accept(this, context);
+		} else {
+			location.setBinding(context.resolve(location.getName()));
+		}
+
+		return null;
+	}
+
+	@Override
+	public Object visit(ArrayLocation location, SymbolTable context)
+			throws Exception {
+		location.getArray().accept(this, context);
+		location.getIndex().accept(this, context);
+		return null;
+	}
+
+	@Override
+	public Object visit(StaticCall call, SymbolTable context) throws Exception {
+		ClassType classType = typeTable.getClassType(call.getClassName());
+
+		if (classType != null && classType.getClassAST() != null) {
+			call.setBinding(classType.getClassAST().enclosingScope().resolve(call.getName()));
+		}
+
+		for (Expression expr : call.getArguments()) {
+			expr.accept(this, context);
+		}
+
+		return null;
+	}
+
+	@Override
+	public Object visit(VirtualCall call, SymbolTable context) throws Exception {
+		if (call.isExternal()) {
+			call.getLocation().accept(this, context);
+		} else {
+			call.setBinding(context.resolve(call.getName()));
+		}
+
+		for (Expression expr : call.getArguments()) {
+			expr.accept(this, context);
+		}
+
+		return null;
+	}
+
+	@Override
+	public Object visit(This thisExpression, SymbolTable context)
+			throws Exception {
+		return null;
+	}
+
+	@Override
+	public Object visit(NewClass newClass, SymbolTable context)
+			throws Exception {
+		return null;
+	}
+
+	@Override
+	public Object visit(NewArray newArray, SymbolTable context)
+			throws Exception {
+		return newArray.getSize().accept(this, context);
+	}
+
+	@Override
+	public Object visit(Length length, SymbolTable context) throws Exception {
+		return length.getArray().accept(this, context);
+	}
+
+	@Override
+	public Object visit(MathBinaryOp binaryOp, SymbolTable context)
+			throws Exception {
+		binaryOp.getFirstOperand().accept(this, context);
+		binaryOp.getSecondOperand().accept(this, context);
+		return null;
+	}
+
+	@Override
+	public Object visit(LogicalBinaryOp binaryOp, SymbolTable context)
+			throws Exception {
+		binaryOp.getFirstOperand().accept(this, context);
+		binaryOp.getSecondOperand().accept(this, context);
+		return null;
+	}
+
+	@Override
+	public Object visit(MathUnaryOp unaryOp, SymbolTable context)
+			throws Exception {
+		return unaryOp.getOperand().accept(this, context);
+	}
+
+	@Override
+	public Object visit(LogicalUnaryOp unaryOp, SymbolTable context)
+			throws Exception {
+		return unaryOp.getOperand().accept(this, context);
+	}
+
+	@Override
+	public Object visit(Literal literal, SymbolTable context) throws Exception {
+		return null;
+	}
+
+	@Override
+	public Object visit(ExpressionBlock expressionBlock, SymbolTable context)
+			throws Exception {
+		return expressionBlock.getExpression().accept(this, context);
+	}
+
+	@Override
+	public Object visit(FieldOrMethod fieldOrMethod, SymbolTable context)
+			throws Exception {
+		return null;
+	}
+}
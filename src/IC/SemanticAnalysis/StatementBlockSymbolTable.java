@@ -13,7 +13,7 @@ public class StatementBlockSymbolTable extends SymbolTable {
 	}
 	
 	@Override
-	public void AddUniqueTypes() {
+	public void AddUniqueTypes(TypeTable typeTable) {
 		
 		Type myType;
 		
@@ -25,7 +25,7 @@ public class StatementBlockSymbolTable extends SymbolTable {
 					myType = entry.getValue().getType();
 					
 					if (myType instanceof ArrayType) {
-						TypeTable.addArrayType((ArrayType)myType);
+						typeTable.addArrayType((ArrayType)myType);
 					}
 				}
 			}
@@ -33,7 +33,7 @@ public class StatementBlockSymbolTable extends SymbolTable {
 		
 		if (getChildList().size() > 0) {
 			for (SymbolTable child : getChildList()) {
-				child.AddUniqueTypes();	
+				child.AddUniqueTypes(typeTable);	
 			}
 		}
 	}
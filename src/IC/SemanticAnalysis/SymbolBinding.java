@@ -0,0 +1,21 @@
+package IC.SemanticAnalysis;
+
+/**
+ * The declaration a name was resolved to
+ */
+public class SymbolBinding {
+	private SymbolTableRow row;
+
+	public SymbolBinding(SymbolTableRow row) {
+		this.row = row;
+	}
+
+	public SymbolTableRow getRow() {
+		return this.row;
+	}
+
+	@Override
+	public String toString() {
+		return row.getId();
+	}
+}
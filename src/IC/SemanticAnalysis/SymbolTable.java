@@ -8,6 +8,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 
 import IC.TypeTable.Type;
+import IC.TypeTable.TypeTable;
 
 public abstract class SymbolTable {
 
@@ -45,26 +46,32 @@ public abstract class SymbolTable {
 	}
 	
 	public SymbolTableRow look(String symbolName) {
-		if (entries.containsKey(symbolName)) {
-			return entries.get(symbolName);
-		} else {
-			return null;
-		}
+		return entries.get(symbolName);
 	}
 	
 	public SymbolTableRow lookup(String symbolName) {
-		
-		if (entries.containsKey(symbolName)) {
-			return entries.get(symbolName);
-		}
+		for (SymbolTable table = this; table != null; table = table.parentSymbolTable) {
+			SymbolTableRow row = table.entries.get(symbolName);
 
-		if (parentSymbolTable != null) {
-			return parentSymbolTable.lookup(symbolName);
+			if (row != null) {
+				return row;
+			}
 		}
-		
+
 		return null;
 	}
 
+	/**
+	 * Resolve a name once, like lookup, keeping the declaration it was found at
+	 * @param symbolName the name
+	 * @return the binding, <code>null</code> if the name isn't defined
+	 */
+	public SymbolBinding resolve(String symbolName) {
+		SymbolTableRow row = lookup(symbolName);
+
+		return row != null ? new SymbolBinding(row) : null;
+	}
+
 	public void addChild(SymbolTable child) {
 		childList.add(child);
 	}
@@ -89,7 +96,7 @@ public abstract class SymbolTable {
 		return entries.entrySet();
 	}
 	
-	public void AddUniqueTypes() {
+	public void AddUniqueTypes(TypeTable typeTable) {
 		if (entries.size() > 0) {
 			for (Entry<String, SymbolTableRow> entry : entries.entrySet()) {
 				if (entry.getValue().getKind() != Kind.RET_VAR
@@ -54,13 +54,15 @@ public class TableConstructor implements PropagatingVisitor<SymbolTable, Object>
 
 	private String ICFilePath;
 	private ASTNode root;
+	private TypeTable typeTable;
 	
 	private StringBuffer errors;
 	private boolean didIFoundMainMethod;
 
-	public TableConstructor(String path, ASTNode root) {
+	public TableConstructor(String path, ASTNode root, TypeTable typeTable) {
 		this.ICFilePath = path.substring(path.lastIndexOf("\\") + 1);
 		this.root = root;
+		this.typeTable = typeTable;
 		this.didIFoundMainMethod = false;
 		errors = new StringBuffer();
 	}
@@ -85,6 +87,10 @@ public class TableConstructor implements PropagatingVisitor<SymbolTable, Object>
 		return resultNode;
 	}
 
+	public boolean isAllGood() {
+		return errors.length() == 0;
+	}
+
 	@Override
 	public Object visit(Program program, SymbolTable scope) throws Exception {
 		SymbolTable globalTable = new GlobalSymbolTable("Global", ICFilePath);
@@ -112,7 +118,7 @@ public class TableConstructor implements PropagatingVisitor<SymbolTable, Object>
 		
 		program.setEnclosingScope(globalTable);
 		
-		globalTable.AddUniqueTypes();
+		globalTable.AddUniqueTypes(typeTable);
 		
 		return null;
 	}
@@ -146,8 +152,8 @@ public class TableConstructor implements PropagatingVisitor<SymbolTable, Object>
 
 		icClass.setEnclosingScope(classTable);
 		
-		TypeTable.addClassType(classType);
-		classTable.AddUniqueTypes();
+		typeTable.addClassType(classType);
+		classTable.AddUniqueTypes(typeTable);
 		
 		return new SymbolTableRow(icClass.getName(), classType, Kind.CLASS);
 	}
@@ -192,7 +198,7 @@ public class TableConstructor implements PropagatingVisitor<SymbolTable, Object>
 		MethodType methodType = new MethodType(method.getName(),
 				VirtualOrStatic.Virtual, paramTypes, methodReturnType);
 		
-		Type thisType = TypeTable.getClassType(scope.getId());
+		Type thisType = typeTable.getClassType(scope.getId());
 		methodTable.insert("$this", new SymbolTableRow("$this", thisType, Kind.THIS));
 		methodTable.insert("$ret", new SymbolTableRow("$ret_type", methodReturnType, Kind.RET_VAR));
 		
@@ -287,7 +293,7 @@ public class TableConstructor implements PropagatingVisitor<SymbolTable, Object>
 
 	@Override
 	public Object visit(UserType type, SymbolTable scope) throws Exception {
-		return CompilerUtils.userTypeToMyType(type);
+		return CompilerUtils.userTypeToMyType(type, typeTable);
 	}
 
 	@Override
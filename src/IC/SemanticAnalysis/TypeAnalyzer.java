@@ -2,6 +2,8 @@ package IC.SemanticAnalysis;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import IC.BinaryOps;
 import IC.CompilerUtils;
@@ -48,19 +50,48 @@ import IC.AST.While;
 import IC.TypeTable.ArrayType;
 import IC.TypeTable.ClassType;
 import IC.TypeTable.MethodType;
-import IC.TypeTable.MethodType.VirtualOrStatic;
 import IC.TypeTable.Type;
 import IC.TypeTable.TypeTable;
-import com.sun.scenario.effect.impl.sw.sse.SSEBlend_SRC_OUTPeer;
 
+/**
+ * Type Analyzer visitor - checks the types of the statements and expressions.
+ * Given a scope checker, it also runs the scope checks in the same traversal,
+ * with the same diagnostics as running the scope checker on its own.
+ * Given a pool, the method bodies are checked concurrently, each by its own
+ * analyzer, and their diagnostics are merged in the source order
+ */
 public class TypeAnalyzer implements PropagatingVisitor<SymbolTable, Object>,
 		Tester {
 
 	private final ASTNode root;
+	private final TypeTable typeTable;
 	private StringBuffer errors;
 
-	public TypeAnalyzer(ASTNode root) {
+	/** the scope checker whose checks run in this traversal, <code>null</code> if it runs on its own **/
+	private final ScopeChecker scopeChecker;
+
+	/** the pool checking the method bodies, <code>null</code> to check them in this thread **/
+	private final ForkJoinPool pool;
+
+	/** the depth inside subtrees the scope checker doesn't visit **/
+	private int unscopedDepth;
+
+	/** the argument types of the calls being checked, a call's arguments are the types from its mark, nested calls push and pop above them **/
+	private final List<Type> argumentTypes = new ArrayList<Type>();
+
+	public TypeAnalyzer(ASTNode root, TypeTable typeTable) {
+		this(root, typeTable, null);
+	}
+
+	public TypeAnalyzer(ASTNode root, TypeTable typeTable, ScopeChecker scopeChecker) {
+		this(root, typeTable, scopeChecker, null);
+	}
+
+	public TypeAnalyzer(ASTNode root, TypeTable typeTable, ScopeChecker scopeChecker, ForkJoinPool pool) {
 		this.root = root;
+		this.typeTable = typeTable;
+		this.scopeChecker = scopeChecker;
+		this.pool = pool;
 	}
 
 	@Override
@@ -80,6 +111,10 @@ public class TypeAnalyzer implements PropagatingVisitor<SymbolTable, Object>,
 
 	@Override
 	public Object visit(Program program, SymbolTable context) throws Exception {
+		if (pool != null) {
+			return visitInParallel(program);
+		}
+
 		for (ICClass icClass : program.getClasses()) {
 			icClass.accept(this, program.enclosingScope());
 		}
@@ -87,8 +122,103 @@ public class TypeAnalyzer implements PropagatingVisitor<SymbolTable, Object>,
 		return null;
 	}
 
+	/**
+	 * Check the method bodies on the pool, they only read the tables, then visit
+	 * the classes in order and merge the diagnostics of their methods
+	 */
+	private Object visitInParallel(Program program) throws Exception {
+		List<Method> methods = new ArrayList<>();
+
+		for (ICClass icClass : program.getClasses()) {
+			methods.addAll(icClass.getMethods());
+		}
+
+		TypeAnalyzer[] methodAnalyzers = new TypeAnalyzer[methods.size()];
+		Exception[] failures = new Exception[methods.size()];
+		pool.invoke(new MethodsTask(methods, methodAnalyzers, failures, 0, methods.size()));
+
+		int index = 0;
+
+		for (ICClass icClass : program.getClasses()) {
+			if (checksScopes()) {
+				scopeChecker.checkClass(icClass);
+			}
+
+			for (Field field : icClass.getFields()) {
+				field.accept(this, icClass.enclosingScope());
+			}
+
+			for (int i = 0; i < icClass.getMethods().size(); i++, index++) {
+				/* a failed method fails the analysis, the first one in the source order as in a single thread */
+				if (failures[index] != null) {
+					throw failures[index];
+				}
+
+				if (scopeChecker != null) {
+					scopeChecker.appendErrors(methodAnalyzers[index].scopeChecker.getErrors());
+				}
+
+				errors.append(methodAnalyzers[index].getErrors());
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Check a range of methods, split in halves until it's small enough to check in one task
+	 */
+	private class MethodsTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		/** the number of methods checked by a single task **/
+		private static final int METHODS_PER_TASK = 16;
+
+		private final List<Method> methods;
+		private final TypeAnalyzer[] methodAnalyzers;
+		private final Exception[] failures;
+		private final int from;
+		private final int to;
+
+		MethodsTask(List<Method> methods, TypeAnalyzer[] methodAnalyzers, Exception[] failures, int from, int to) {
+			this.methods = methods;
+			this.methodAnalyzers = methodAnalyzers;
+			this.failures = failures;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > METHODS_PER_TASK) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new MethodsTask(methods, methodAnalyzers, failures, from, middle),
+						new MethodsTask(methods, methodAnalyzers, failures, middle, to));
+				return;
+			}
+
+			for (int i = from; i < to; i++) {
+				Method method = methods.get(i);
+				TypeAnalyzer methodAnalyzer = new TypeAnalyzer(method, typeTable,
+						scopeChecker != null ? new ScopeChecker(method, typeTable) : null);
+
+				try {
+					methodAnalyzer.test();
+					methodAnalyzers[i] = methodAnalyzer;
+				} catch (Exception ex) {
+					failures[i] = ex;
+				}
+			}
+		}
+	}
+
 	@Override
 	public Object visit(ICClass icClass, SymbolTable context) throws Exception {
+		if (checksScopes()) {
+			scopeChecker.checkClass(icClass);
+		}
+
 		for (Field field : icClass.getFields()) {
 			field.accept(this, icClass.enclosingScope());
 		}
@@ -102,6 +232,10 @@ public class TypeAnalyzer implements PropagatingVisitor<SymbolTable, Object>,
 
 	@Override
 	public Object visit(Field field, SymbolTable context) throws Exception {
+		if (checksScopes()) {
+			scopeChecker.checkField(field, context);
+		}
+
 		return context.look(field.getName()).getType();
 	}
 
@@ -162,7 +296,7 @@ public class TypeAnalyzer implements PropagatingVisitor<SymbolTable, Object>,
 
 	@Override
 	public Object visit(UserType type, SymbolTable context) throws Exception {
-		return CompilerUtils.userTypeToMyType(type);
+		return CompilerUtils.userTypeToMyType(type, typeTable);
 	}
 
 	@Override
@@ -172,13 +306,18 @@ public class TypeAnalyzer implements PropagatingVisitor<SymbolTable, Object>,
 		Expression rhs = assignment.getAssignment();
 		Location lhs = assignment.getVariable();
 
+		int rhsMark = scopeErrorsMark();
 		Type expressionValue = (Type) rhs.accept(this, context);
+		int lhsMark = scopeErrorsMark();
 		Type variable = (Type) lhs.accept(this, context);
 
+		/* the scope checker visits the variable first */
+		moveScopeErrors(rhsMark, lhsMark);
+
 		//System.out.println("    >>> lhs: " + variable);
 		//System.out.println("    >>> rhs: " + expressionValue);
 
-		if (!variable.subtypeOf(expressionValue)) {
+		if (!expressionValue.subtypeOf(variable)) {
 			addConvertError(expressionValue, variable, assignment.getLine());
 		}
 
@@ -252,7 +391,15 @@ public class TypeAnalyzer implements PropagatingVisitor<SymbolTable, Object>,
 					whileStatement.getLine());
 		}
 
+		if (scopeChecker != null) {
+			scopeChecker.enterLoop();
+		}
+
 		whileStatement.getOperation().accept(this, context);
+
+		if (scopeChecker != null) {
+			scopeChecker.exitLoop();
+		}
 		// System.out.println(whileStatement.getLine() +
 		// "e - - - - whileStatement - - - - e");
 		return null;
@@ -263,6 +410,10 @@ public class TypeAnalyzer implements PropagatingVisitor<SymbolTable, Object>,
 			throws Exception {
 		// System.out.println(breakStatement.getLine() +
 		// "    -> BreakStatement");
+		if (checksScopes()) {
+			scopeChecker.checkBreak(breakStatement);
+		}
+
 		return null;
 	}
 
@@ -271,6 +422,10 @@ public class TypeAnalyzer implements PropagatingVisitor<SymbolTable, Object>,
 			throws Exception {
 		// System.out.println(continueStatement.getLine() +
 		// "    -> ContinueStatement");
+		if (checksScopes()) {
+			scopeChecker.checkContinue(continueStatement);
+		}
+
 		return null;
 	}
 
@@ -304,6 +459,10 @@ public class TypeAnalyzer implements PropagatingVisitor<SymbolTable, Object>,
             }
 		}
 
+		if (checksScopes()) {
+			scopeChecker.checkLocalVariable(localVariable, context);
+		}
+
 		return localVariableType;
 	}
 
@@ -315,15 +474,23 @@ public class TypeAnalyzer implements PropagatingVisitor<SymbolTable, Object>,
 		if (location.isExternal()) {
 			Type type = (Type) location.getLocation().accept(this, context);
 			
-			ClassType classType = TypeTable.getClassType(type.getName());
+			ClassType classType = typeTable.getClassType(type.getName());
+
+			if (checksScopes()) {
+				scopeChecker.checkExternalVariable(location, classType);
+			}
+
 			SymbolTableRow fieldRow = classType.getClassAST().enclosingScope().lookup(location.getName());
 			if (fieldRow != null) {
 				return fieldRow.getType();
 			}
 		} else {
-			SymbolTableRow localVariableSymbol = context.lookup(location.getName());
-			if (localVariableSymbol != null) {
-				return localVariableSymbol.getType();
+			if (checksScopes()) {
+				scopeChecker.checkVariable(location);
+			}
+
+			if (location.getBinding() != null) {
+				return location.getBinding().getRow().getType();
 			}
 		}
 
@@ -338,10 +505,10 @@ public class TypeAnalyzer implements PropagatingVisitor<SymbolTable, Object>,
 
 		ArrayType arrayType = (ArrayType) location.getArray().accept(this,
 				context);
-		Type indexType = (Type) location.getIndex().accept(this, context);
+		Type indexType = (Type) acceptUnscoped(location.getIndex(), context);
 
 		if (arrayType.getDimention() > 1) {
-			temp = TypeTable.getArrayType(arrayType.toString()).getType();
+			temp = typeTable.getArrayType(arrayType).getType();
 		} else {
 			temp = arrayType.getType();
 		}
@@ -364,27 +531,29 @@ public class TypeAnalyzer implements PropagatingVisitor<SymbolTable, Object>,
 	public Object visit(StaticCall call, SymbolTable context) throws Exception {
 		// System.out.println(call.getLine() + "    -> StaticCall");
 
-		List<Type> argumentsTypeList = new ArrayList<Type>();
 		// A.doSomething(6,5);
-		for (Expression expr : call.getArguments()) {
-			argumentsTypeList.add((Type) expr.accept(this, context));
+		int argumentsMark = pushArgumentTypes(call.getArguments(), context);
+
+		try {
+			return checkStaticCall(call, argumentsMark);
+		} finally {
+			popArgumentTypes(argumentsMark);
 		}
+	}
 
-		ClassType classType = TypeTable.getClassType(call.getClassName());
-		SymbolTableRow row = classType.getClassAST().enclosingScope().lookup(call.getName());
+	private Type checkStaticCall(StaticCall call, int argumentsMark) {
+		SymbolTableRow row = call.getBinding() != null ? call.getBinding().getRow() : null;
 
         if (row != null) {
 
-            MethodType methodType = TypeTable.getMethodType(row.getType().toString());
+            MethodType methodType = row.getType() instanceof MethodType
+                    ? typeTable.getMethodType((MethodType) row.getType()) : null;
             if (methodType != null) {
-                MethodType methodToTest = new MethodType(call.getName(),
-                        VirtualOrStatic.Static, argumentsTypeList, methodType.getReturnType());
-
-                if (methodType.subtypeOf(methodToTest)) {
+                if (methodType.acceptsArguments(argumentTypes, argumentsMark)) {
                     // System.out.println("All good!");
                     return methodType.getReturnType();
                 } else {
-                    addError("SemanticError: " + call.getName() + methodType.getParamType() + " in " + call.getClassName() + " cannot be applied to " + call.getName() + argumentsTypeList, call.getLine());
+                    addError("SemanticError: " + call.getName() + methodType.getParamType() + " in " + call.getClassName() + " cannot be applied to " + call.getName() + argumentTypes.subList(argumentsMark, argumentTypes.size()), call.getLine());
                 }
 
                 return methodType.getReturnType();
@@ -401,23 +570,38 @@ public class TypeAnalyzer implements PropagatingVisitor<SymbolTable, Object>,
 	@Override
 	public Object visit(VirtualCall call, SymbolTable context) throws Exception {
 		// System.out.println(call.getLine() + "    -> VirtualCall");
+		if (!call.isExternal() && checksScopes()) {
+			scopeChecker.checkCall(call);
+		}
+
+		int argumentsErrorsMark = scopeErrorsMark();
+		int argumentsMark = pushArgumentTypes(call.getArguments(), context);
+
+		try {
+			return checkVirtualCall(call, context, argumentsErrorsMark, argumentsMark);
+		} finally {
+			popArgumentTypes(argumentsMark);
+		}
+	}
+
+	private Type checkVirtualCall(VirtualCall call, SymbolTable context, int argumentsErrorsMark, int argumentsMark)
+			throws Exception {
 		MethodType methodType = null;
-		MethodType methodToTest;
 		SymbolTableRow row;
-		List<Type> argumentsTypeList = new ArrayList<>();
 
-		for (Expression expr : call.getArguments()) {
-			argumentsTypeList.add((Type) expr.accept(this, context));
-		}
-		
 		if (call.isExternal()) {
+            int locationMark = scopeErrorsMark();
             String typeName = ((Type) call.getLocation().accept(this, context)).getName();
-            ClassType classType = TypeTable.getClassType(typeName);
+            ClassType classType = typeTable.getClassType(typeName);
+
+            /* the scope checker visits the location first */
+            moveScopeErrors(argumentsErrorsMark, locationMark);
 
 			row = classType.getClassAST().enclosingScope().lookup(call.getName());
 
             if (row != null) {
-                MethodType myType = TypeTable.getMethodType(row.getType().toString());
+                MethodType myType = row.getType() instanceof MethodType
+                        ? typeTable.getMethodType((MethodType) row.getType()) : null;
                 if (myType != null && myType.isStatic() && !call.isExternal()) {
                     addError("SemanticError: Non-Static method '" + call.getName() + "' cannot be referenced from a static context", call.getLine());
                 }
@@ -426,15 +610,13 @@ public class TypeAnalyzer implements PropagatingVisitor<SymbolTable, Object>,
             }
 
 		} else {
-			row = context.lookup(call.getName());
+			row = call.getBinding() != null ? call.getBinding().getRow() : null;
 		}
 		
 		if (row != null) {
             methodType = (MethodType) row.getType();
 
-            methodToTest = new MethodType(call.getName(), VirtualOrStatic.Static, argumentsTypeList, methodType.getReturnType());
-
-            if (methodType.subtypeOf(methodToTest)) {
+            if (methodType.acceptsArguments(argumentTypes, argumentsMark)) {
                 return methodType.getReturnType();
             }
 		}
@@ -446,6 +628,10 @@ public class TypeAnalyzer implements PropagatingVisitor<SymbolTable, Object>,
 	@Override
 	public Object visit(This thisExpression, SymbolTable context)
 			throws Exception {
+		if (checksScopes()) {
+			scopeChecker.checkThis(thisExpression, context);
+		}
+
 		SymbolTableRow row = context.lookup("$this");
 		return row.getType();
 	}
@@ -454,7 +640,7 @@ public class TypeAnalyzer implements PropagatingVisitor<SymbolTable, Object>,
 	public Object visit(NewClass newClass, SymbolTable context)
 			throws Exception {
 
-		return TypeTable.getClassType(newClass.getName());
+		return typeTable.getClassType(newClass.getName());
 	}
 
 	@Override
@@ -463,7 +649,7 @@ public class TypeAnalyzer implements PropagatingVisitor<SymbolTable, Object>,
 		// System.out.println(newArray.getLine() + "    -> newArray");
 
 		Type arrayType = null;
-		Type sizeType = (Type) newArray.getSize().accept(this, context);
+		Type sizeType = (Type) acceptUnscoped(newArray.getSize(), context);
 
 		if (sizeType.subtypeOf(TypeTable.intType)) {
 			arrayType = (Type) newArray.getType().accept(this, context);
@@ -477,7 +663,7 @@ public class TypeAnalyzer implements PropagatingVisitor<SymbolTable, Object>,
 	@Override
 	public Object visit(Length length, SymbolTable context) throws Exception {
 		//System.out.println(length.getLine() + "    -> length");
-		length.getArray().accept(this, context);
+		acceptUnscoped(length.getArray(), context);
 
 		return TypeTable.intType;
 	}
@@ -586,7 +772,7 @@ public class TypeAnalyzer implements PropagatingVisitor<SymbolTable, Object>,
 			// System.out.println("E :- e:" + exprType + " => E :- -e:" +
 			// exprType);
 			// System.out.println("e - - - MathUnaryOp - - - e");
-			return unaryOp.getOperand().accept(this, context);
+			return acceptUnscoped(unaryOp.getOperand(), context);
 		}
 		addUnaryError(exprType, op, unaryOp.getLine());
 		// System.out.println(unaryOp.getLine() +
@@ -616,7 +802,7 @@ public class TypeAnalyzer implements PropagatingVisitor<SymbolTable, Object>,
 			// System.out.println("E :- e:" + exprType + " => E :- !e:" +
 			// exprType);
 			// System.out.println("e - - - LogicalUnaryOp - - - e");
-			return unaryOp.getOperand().accept(this, context);
+			return acceptUnscoped(unaryOp.getOperand(), context);
 		}
 
 		// System.out.println(unaryOp.getLine() +
@@ -642,6 +828,55 @@ public class TypeAnalyzer implements PropagatingVisitor<SymbolTable, Object>,
 		return null;
 	}
 
+	private boolean checksScopes() {
+		return scopeChecker != null && unscopedDepth == 0;
+	}
+
+	/**
+	 * Visit an expression the scope checker doesn't visit, or already visited
+	 * once, so its scope errors aren't reported in the same traversal
+	 */
+	private Object acceptUnscoped(Expression expression, SymbolTable context)
+			throws Exception {
+		unscopedDepth += 1;
+
+		try {
+			return expression.accept(this, context);
+		} finally {
+			unscopedDepth -= 1;
+		}
+	}
+
+	/**
+	 * Check the arguments of a call and push their types
+	 * @return the mark of the call's argument types
+	 */
+	private int pushArgumentTypes(List<Expression> arguments, SymbolTable context) throws Exception {
+		int mark = argumentTypes.size();
+
+		for (Expression expr : arguments) {
+			argumentTypes.add((Type) expr.accept(this, context));
+		}
+
+		return mark;
+	}
+
+	private void popArgumentTypes(int mark) {
+		while (argumentTypes.size() > mark) {
+			argumentTypes.remove(argumentTypes.size() - 1);
+		}
+	}
+
+	private int scopeErrorsMark() {
+		return scopeChecker != null ? scopeChecker.errorsMark() : 0;
+	}
+
+	private void moveScopeErrors(int earlier, int later) {
+		if (scopeChecker != null) {
+			scopeChecker.moveErrors(earlier, later);
+		}
+	}
+
 	private void addUnaryError(Type lhsVal, UnaryOps op, int line) {
 		addError("SemanticError: The operator " + op.getOperatorString()
 				+ " is undefined for the argument type(s) " + lhsVal, line);
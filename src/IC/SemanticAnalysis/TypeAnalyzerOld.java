@@ -13,10 +13,12 @@ public class TypeAnalyzerOld implements
 		PropagatingVisitor<Enviroment, Object> {
 
 	private ASTNode root;
+	private TypeTable typeTable;
 	private StringBuffer errors;
 
-	public TypeAnalyzerOld(ASTNode root) {
+	public TypeAnalyzerOld(ASTNode root, TypeTable typeTable) {
 		this.root = root;
+		this.typeTable = typeTable;
 	}
 
 	public void evaluate() {
@@ -136,7 +138,7 @@ public class TypeAnalyzerOld implements
 
 	@Override
 	public Object visit(UserType type, Enviroment context) throws Exception {
-		Type convertedUserDefType = CompilerUtils.userTypeToMyType(type);
+		Type convertedUserDefType = CompilerUtils.userTypeToMyType(type, typeTable);
 		context.update(convertedUserDefType.getName(), convertedUserDefType);
 		
 		return convertedUserDefType;
@@ -286,7 +288,7 @@ public class TypeAnalyzerOld implements
 		Type indexType = (Type)location.getIndex().accept(this, context);
 		
 		if (arrayType.getDimention() > 1) {
-			temp = TypeTable.getArrayType(arrayType.toString()).getType();	
+			temp = typeTable.getArrayType(arrayType).getType();	
 		} else {
 			temp = arrayType.getType();
 		}
@@ -319,8 +321,8 @@ public class TypeAnalyzerOld implements
 		
 		System.err.println(context.get(call.getName()).getName());
 		
-		ClassType classType = TypeTable.getClassType(call.getClassName());
-		MethodType methodType = TypeTable.getMethodType(call.getName());
+		ClassType classType = typeTable.getClassType(call.getClassName());
+		MethodType methodType = typeTable.getMethodType((MethodType) context.get(call.getName()));
 		
 		System.out.println("call.getName(): " + call.getName());
 		System.out.println("argumentsTypeList: " + argumentsTypeList);
@@ -351,12 +353,12 @@ public class TypeAnalyzerOld implements
 			argumentsTypeList.add((Type) expr.accept(this, context));
 		}
 		
-		MethodType methodType = TypeTable.getMethodType(call.getName());
+		MethodType methodType = typeTable.getMethodType((MethodType) context.get(call.getName()));
 		
 		MethodType methodToTest = new MethodType(call.getName(), VirtualOrStatic.Static, argumentsTypeList, methodType.getReturnType());
 		
 		if (call.isExternal()) {
-			ClassType classType = TypeTable.getClassType(((Type)call.getLocation().accept(this, context)).getName());	
+			ClassType classType = typeTable.getClassType(((Type)call.getLocation().accept(this, context)).getName());	
 			if (classType.getClassAST().enclosingScope().lookup(call.getName()) == null) {
 				//throw new SemanticError("Call Exception");
 			}
@@ -379,7 +381,7 @@ public class TypeAnalyzerOld implements
 	@Override
 	public Object visit(NewClass newClass, Enviroment context) throws Exception {
 		System.out.println(newClass.getLine() + "    -> newClass ---- " + newClass.getName());
-		return TypeTable.getClassType(newClass.getName());
+		return typeTable.getClassType(newClass.getName());
 	}
 
 	@Override
@@ -14,10 +14,12 @@ import IC.TypeTable.Type;
 public class TypeTableConstructor implements Visitor {
 
 	private ASTNode root;
+	private TypeTable typeTable;
 	private Map<String, ClassType> classTypesMap;
 	
-	public TypeTableConstructor(ASTNode root) {
+	public TypeTableConstructor(ASTNode root, TypeTable typeTable) {
 		this.root = root;
+		this.typeTable = typeTable;
 		classTypesMap = new HashMap<String, ClassType>();
 	}
 	
@@ -40,11 +42,13 @@ public class TypeTableConstructor implements Visitor {
 		
 		for (ICClass icClass : classes) {
 			if (icClass.hasSuperClass()) {
-				ClassType currentClass = TypeTable.getClassType(icClass.getName());
-				ClassType superClass = TypeTable.getClassType(icClass.getSuperClassName());
+				ClassType currentClass = typeTable.getClassType(icClass.getName());
+				ClassType superClass = typeTable.getClassType(icClass.getSuperClassName());
 				currentClass.setSuperClass(superClass);
 			}
 		}
+
+		typeTable.numberClassHierarchy();
 		
 		return null;
 	}
@@ -53,13 +57,13 @@ public class TypeTableConstructor implements Visitor {
 	public Object visit(ICClass icClass) {
 		Type currentType;
 		ClassType classType = new ClassType(icClass);
-		TypeTable.addClassType(classType);
+		typeTable.addClassType(classType);
 		
 		for (Field field : icClass.getFields()) {
 			currentType = (Type)field.getType().accept(this);
 			
 			if (currentType instanceof ArrayType) {
-				TypeTable.addArrayType((ArrayType)currentType);
+				typeTable.addArrayType((ArrayType)currentType);
 			}
 		}
 		
@@ -86,18 +90,18 @@ public class TypeTableConstructor implements Visitor {
 			params.add(currentType);
 			
 			if (currentType instanceof ArrayType) {
-				TypeTable.addArrayType((ArrayType)currentType);
+				typeTable.addArrayType((ArrayType)currentType);
 			}
 		}
 		
 		retType = (Type)method.getType().accept(this);
 		
 		if (retType instanceof ArrayType) {
-			TypeTable.addArrayType((ArrayType)retType);
+			typeTable.addArrayType((ArrayType)retType);
 		}
 		
 		MethodType methodType = new MethodType(method.getName(), VirtualOrStatic.Virtual, params, retType);
-		TypeTable.addMethodType(method.getName(), methodType);
+		typeTable.addMethodType(method.getName(), methodType);
 		
 		for (Statement stmt : method.getStatements()) {
 			stmt.accept(this);
@@ -117,14 +121,14 @@ public class TypeTableConstructor implements Visitor {
 			params.add(currentType);
 					
 			if (currentType instanceof ArrayType) {
-				TypeTable.addArrayType((ArrayType)currentType);
+				typeTable.addArrayType((ArrayType)currentType);
 			}
 		}
 		
 		retType = (Type)method.getType().accept(this);
 		
 		if (retType instanceof ArrayType) {
-			TypeTable.addArrayType((ArrayType)retType);
+			typeTable.addArrayType((ArrayType)retType);
 		}
 		
 		MethodType methodType = new MethodType(VirtualOrStatic.Static, params, retType);
@@ -132,7 +136,7 @@ public class TypeTableConstructor implements Visitor {
 		//System.out.println("method.getName(): " + method.getName());
 		//System.out.println("methodType.getName(): " + methodType.getName());
 		
-		TypeTable.addMethodType(method.getName(), methodType);
+		typeTable.addMethodType(method.getName(), methodType);
 		
 		for (Statement stmt : method.getStatements()) {
 			stmt.accept(this);
@@ -152,14 +156,14 @@ public class TypeTableConstructor implements Visitor {
 			params.add(currentType);
 			
 			if (currentType instanceof ArrayType) {
-				TypeTable.addArrayType((ArrayType)currentType);
+				typeTable.addArrayType((ArrayType)currentType);
 			}
 		}
 		
 		retType = (Type)method.getType().accept(this);
 		
 		if (retType instanceof ArrayType) {
-			TypeTable.addArrayType((ArrayType)retType);
+			typeTable.addArrayType((ArrayType)retType);
 		}
 		
 		MethodType methodType = new MethodType(VirtualOrStatic.Static, params, retType);
@@ -167,7 +171,7 @@ public class TypeTableConstructor implements Visitor {
 		//System.out.println("method.getName(): " + method.getName());
 		//System.out.println("methodType.getName(): " + methodType.getName());
 		
-		TypeTable.addMethodType(method.toString(), methodType);
+		typeTable.addMethodType(method.toString(), methodType);
 		
 		for (Statement stmt : method.getStatements()) {
 			stmt.accept(this);
@@ -0,0 +1,111 @@
+package IC.Server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CompileClient class - a thin replacement for <code>java IC.Compiler</code>
+ * that sends the compilation to a running CompileServer.
+ *
+ * Usage: IC.Server.CompileClient [-port=N] file.ic [-Lfile] [flags]
+ *        IC.Server.CompileClient [-port=N] -shutdown
+ */
+public class CompileClient {
+
+    private final int port;
+
+    public static void main(String[] args) {
+        int port = CompileProtocol.DEFAULT_PORT;
+        boolean shutdown = false;
+        List<String> compilerArgs = new ArrayList<>();
+
+        for (String arg : args) {
+            if (arg.startsWith("-port=")) {
+                port = Integer.parseInt(arg.substring("-port=".length()));
+            } else if (arg.equals("-shutdown")) {
+                shutdown = true;
+            } else {
+                compilerArgs.add(arg);
+            }
+        }
+
+        CompileClient client = new CompileClient(port);
+
+        try {
+            if (shutdown) {
+                client.shutdown();
+                return;
+            }
+
+            CompileResponse response = client.compile(compilerArgs.toArray(new String[compilerArgs.size()]));
+
+            System.out.print(response.getOut());
+            System.err.print(response.getErr());
+            System.out.flush();
+
+            System.exit(response.getResult() ? 0 : 1);
+        } catch (IOException ex) {
+            System.err.println("Compile client: can't reach the compile server on port " + port + " (" + ex.getMessage() + ")");
+            System.exit(2);
+        }
+    }
+
+    /**
+     * The CompileClient constructor method
+     * @param port the loopback port of the server
+     */
+    public CompileClient(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Compile a program on the server
+     * @param args the IC.Compiler arguments, the paths are resolved against the client directory
+     * @return the server response
+     * @throws IOException if the server can't be reached
+     */
+    public CompileResponse compile(String[] args) throws IOException {
+        String[] requestArgs = new String[args.length];
+
+        for (int i = 0; i < args.length; i++) {
+            if (i == 0 && !args[i].startsWith("-")) {
+                requestArgs[i] = new File(args[i]).getAbsolutePath();
+            } else if (args[i].startsWith("-L")) {
+                requestArgs[i] = "-L" + new File(args[i].substring(2)).getAbsolutePath();
+            } else {
+                requestArgs[i] = args[i];
+            }
+        }
+
+        try (Socket connection = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+            DataInputStream input = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+
+            CompileProtocol.writeRequest(output, requestArgs);
+            return CompileProtocol.readResponse(input);
+        }
+    }
+
+    /**
+     * Ask the server to stop
+     * @throws IOException if the server can't be reached
+     */
+    public void shutdown() throws IOException {
+        try (Socket connection = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+            DataInputStream input = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+
+            output.writeInt(CompileProtocol.SHUTDOWN);
+            output.flush();
+            CompileProtocol.readResponse(input);
+        }
+    }
+}
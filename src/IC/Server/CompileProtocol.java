@@ -0,0 +1,101 @@
+package IC.Server;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * CompileProtocol class holds the wire format shared by the compile server and client.
+ *
+ * Request:  int argsCount, then argsCount UTF strings (the IC.Compiler arguments).
+ *           A count of <code>SHUTDOWN</code> asks the server to stop.
+ * Response: boolean result, then the captured stdout, stderr and LIR program,
+ *           each as an int length followed by UTF-8 bytes (length -1 for none).
+ */
+public final class CompileProtocol {
+
+    /**
+     * The default loopback port of the compile server
+     */
+    public static final int DEFAULT_PORT = 7878;
+
+    /**
+     * The argument count of a shutdown request
+     */
+    public static final int SHUTDOWN = -1;
+
+    private CompileProtocol() {
+    }
+
+    public static void writeRequest(DataOutputStream output, String[] args) throws IOException {
+        output.writeInt(args.length);
+
+        for (String arg : args) {
+            output.writeUTF(arg);
+        }
+
+        output.flush();
+    }
+
+    /**
+     * Read a compile request
+     * @param input the connection input
+     * @return the compiler arguments, <code>null</code> for a shutdown request
+     * @throws IOException if the connection fails
+     */
+    public static String[] readRequest(DataInputStream input) throws IOException {
+        int argsCount = input.readInt();
+
+        if (argsCount == SHUTDOWN) {
+            return null;
+        }
+
+        String[] args = new String[argsCount];
+        for (int i = 0; i < argsCount; i++) {
+            args[i] = input.readUTF();
+        }
+
+        return args;
+    }
+
+    public static void writeResponse(DataOutputStream output, CompileResponse response) throws IOException {
+        output.writeBoolean(response.getResult());
+        writeText(output, response.getOut());
+        writeText(output, response.getErr());
+        writeText(output, response.getLir());
+        output.flush();
+    }
+
+    public static CompileResponse readResponse(DataInputStream input) throws IOException {
+        boolean result = input.readBoolean();
+        String out = readText(input);
+        String err = readText(input);
+        String lir = readText(input);
+
+        return new CompileResponse(result, out, err, lir);
+    }
+
+    private static void writeText(DataOutputStream output, String text) throws IOException {
+        if (text == null) {
+            output.writeInt(-1);
+        } else {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+    }
+
+    private static String readText(DataInputStream input) throws IOException {
+        int length = input.readInt();
+
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
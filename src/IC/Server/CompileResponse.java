@@ -0,0 +1,51 @@
+package IC.Server;
+
+/**
+ * CompileResponse class holds the outcome of a single compile request
+ */
+public class CompileResponse {
+
+    private final boolean result;
+    private final String out;
+    private final String err;
+    private final String lir;
+
+    public CompileResponse(boolean result, String out, String err, String lir) {
+        this.result = result;
+        this.out = out;
+        this.err = err;
+        this.lir = lir;
+    }
+
+    /**
+     * Get whether the compilation was a success or a fail
+     * @return the compilation result
+     */
+    public boolean getResult() {
+        return this.result;
+    }
+
+    /**
+     * Get the standard output of the compilation, including the program run by -print-lir
+     * @return the captured output
+     */
+    public String getOut() {
+        return this.out;
+    }
+
+    /**
+     * Get the diagnostics of the compilation
+     * @return the captured error output
+     */
+    public String getErr() {
+        return this.err;
+    }
+
+    /**
+     * Get the translated LIR program
+     * @return the LIR program, <code>null</code> if the program wasn't translated
+     */
+    public String getLir() {
+        return this.lir;
+    }
+}
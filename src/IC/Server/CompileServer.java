@@ -0,0 +1,175 @@
+package IC.Server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import IC.Compiler;
+
+/**
+ * CompileServer class - a resident compiler listening on a loopback port.
+ * Each request is an IC.Compiler argument list, compiled on a pool of worker
+ * threads inside the same warmed-up JVM. The output and diagnostics of every
+ * request are captured and sent back to the client.
+ *
+ * Usage: IC.Compiler -server [-port=N] [-threads=N]
+ *
+ * The programs compiled with -print-lir run in a child JVM, so a program
+ * calling Library.exit stops only its own run and not the server.
+ */
+public class CompileServer {
+
+    /**
+     * The flag that switches the compiler to server mode
+     */
+    public static final String SERVER_FLAG = "-server";
+
+    private static final String ENCODING = "UTF-8";
+
+    private final int port;
+    private final ExecutorService workers;
+    private final ThreadOutputStream outRouter;
+    private final ThreadOutputStream errRouter;
+
+    private ServerSocket serverSocket;
+    private volatile boolean running;
+
+    public static void main(String[] args) {
+        int port = CompileProtocol.DEFAULT_PORT;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        for (String arg : args) {
+            if (arg.startsWith("-port=")) {
+                port = Integer.parseInt(arg.substring("-port=".length()));
+            } else if (arg.startsWith("-threads=")) {
+                threads = Integer.parseInt(arg.substring("-threads=".length()));
+            }
+        }
+
+        try {
+            new CompileServer(port, threads).run();
+        } catch (IOException ex) {
+            System.err.println("Compile server: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * The CompileServer constructor method
+     * @param port the loopback port to listen on
+     * @param threads the number of worker threads
+     */
+    public CompileServer(int port, int threads) {
+        this.port = port;
+        this.workers = Executors.newFixedThreadPool(threads);
+        this.outRouter = new ThreadOutputStream(System.out);
+        this.errRouter = new ThreadOutputStream(System.err);
+    }
+
+    /**
+     * Accept requests until a shutdown request arrives
+     * @throws IOException if the server socket can't be opened
+     */
+    public void run() throws IOException {
+        try {
+            System.setOut(new PrintStream(outRouter, true, ENCODING));
+            System.setErr(new PrintStream(errRouter, true, ENCODING));
+        } catch (UnsupportedEncodingException ex) {
+            throw new IOException(ex);
+        }
+
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        running = true;
+
+        System.out.println("Compile server listening on " + serverSocket.getLocalSocketAddress());
+
+        try {
+            while (running) {
+                final Socket connection = serverSocket.accept();
+                workers.execute(() -> handle(connection));
+            }
+        } catch (SocketException ex) {
+            /* the socket was closed by a shutdown request */
+        } finally {
+            workers.shutdown();
+        }
+    }
+
+    /**
+     * Stop accepting requests, the running requests are completed
+     */
+    public void shutdown() {
+        running = false;
+
+        try {
+            if (serverSocket != null) {
+                serverSocket.close();
+            }
+        } catch (IOException ex) {
+            /* ignore */
+        }
+    }
+
+    /**
+     * Compile a program, capturing everything the compiler prints
+     * @param args the IC.Compiler arguments
+     * @return the compilation response
+     */
+    public CompileResponse compile(String[] args) {
+        ByteArrayOutputStream outBuffer = new ByteArrayOutputStream();
+        ByteArrayOutputStream errBuffer = new ByteArrayOutputStream();
+        boolean result = false;
+        String lir = null;
+
+        outRouter.capture(outBuffer);
+        errRouter.capture(errBuffer);
+
+        try {
+            Compiler compiler = new Compiler(args);
+            compiler.setForkExecution(true);
+            result = compiler.compile();
+            lir = compiler.getLirOutput();
+        } catch (RuntimeException ex) {
+            ex.printStackTrace();
+        } finally {
+            System.out.flush();
+            System.err.flush();
+            outRouter.release();
+            errRouter.release();
+        }
+
+        try {
+            return new CompileResponse(result, outBuffer.toString(ENCODING), errBuffer.toString(ENCODING), lir);
+        } catch (UnsupportedEncodingException ex) {
+            return new CompileResponse(result, outBuffer.toString(), errBuffer.toString(), lir);
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (Socket connection = socket) {
+            DataInputStream input = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+
+            String[] args = CompileProtocol.readRequest(input);
+
+            if (args == null) {
+                CompileProtocol.writeResponse(output, new CompileResponse(true, null, null, null));
+                shutdown();
+            } else {
+                CompileProtocol.writeResponse(output, compile(args));
+            }
+        } catch (IOException ex) {
+            System.err.println("Compile server: " + ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package IC.Server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * ThreadOutputStream class to redirect <code>System.out</code> and <code>System.err</code>
+ * of a single worker thread into its own buffer, while the other threads
+ * keep writing to the original stream
+ */
+public class ThreadOutputStream extends OutputStream {
+
+    private final OutputStream defaultStream;
+    private final ThreadLocal<OutputStream> threadStream;
+
+    /**
+     * ThreadOutputStream constructor
+     * @param defaultStream the stream used by threads that don't capture their output
+     */
+    public ThreadOutputStream(OutputStream defaultStream) {
+        this.defaultStream = defaultStream;
+        this.threadStream = new ThreadLocal<>();
+    }
+
+    /**
+     * Redirect the output of the current thread
+     * @param stream the stream to write the output of the current thread into
+     */
+    public void capture(OutputStream stream) {
+        threadStream.set(stream);
+    }
+
+    /**
+     * Stop redirecting the output of the current thread
+     */
+    public void release() {
+        threadStream.remove();
+    }
+
+    private OutputStream current() {
+        OutputStream stream = threadStream.get();
+        return (stream != null) ? stream : defaultStream;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        current().write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        current().write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        current().flush();
+    }
+}
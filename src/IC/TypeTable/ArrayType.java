@@ -47,6 +47,35 @@ public class ArrayType extends Type {
 		return output.toString();
 	}
 
+	@Override
+	public boolean sameType(Type other) {
+		if (this == other) {
+			return true;
+		}
+
+		if (!(other instanceof ArrayType)) {
+			return false;
+		}
+
+		ArrayType aType = (ArrayType)other;
+		return aType.dimention == dimention && Type.sameType(elemType, aType.elemType);
+	}
+
+	@Override
+	public int typeHash() {
+		return Type.typeHash(elemType) * 31 + dimention;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return other instanceof Type && sameType((Type)other);
+	}
+
+	@Override
+	public int hashCode() {
+		return typeHash();
+	}
+
 	@Override
 	public boolean subtypeOf(Type t) {
 		
@@ -6,6 +6,14 @@ public class ClassType extends Type {
 	
 	private ICClass classAST;
 	private ClassType superClass;
+
+	/**
+	 * The interval of the class in a depth first walk of the hierarchy, a class is
+	 * a subtype of another class iff its interval is nested in the other one.
+	 * Zero until the hierarchy is numbered
+	 */
+	private int preOrder;
+	private int postOrder;
 	
 
 	public ClassType(ICClass classAST) {
@@ -33,6 +41,16 @@ public class ClassType extends Type {
 		return superClass != null;
 	}
 
+	/**
+	 * Set the interval of the class in the hierarchy, see <code>TypeTable.numberClassHierarchy</code>
+	 * @param preOrder the number of the class when the walk enters it
+	 * @param postOrder the number of the class when the walk leaves it
+	 */
+	public void setInterval(int preOrder, int postOrder) {
+		this.preOrder = preOrder;
+		this.postOrder = postOrder;
+	}
+
 	@Override
 	public boolean subtypeOf(Type t) {
 		if (!(t instanceof ClassType)) {
@@ -42,24 +60,14 @@ public class ClassType extends Type {
 	    if (this == t) {
 	    	return true;
 	    }
-	    
-	    if (superClass == null) {
+
+	    ClassType other = (ClassType) t;
+
+	    /* a class that isn't numbered, e.g. on an inheritance cycle, is only a subtype of itself */
+	    if (preOrder == 0 || other.preOrder == 0) {
 	    	return false;
 	    }
-	    
-	    ClassType c = superClass;
-	    while (c != null) {
-            if (c == t) {
-                return true;
-            }
-            
-            c = c.getSuperClass();  
-	    }
-	    
-	    if (((ClassType)t).hasSuperClass()) {
-            return subtypeOf(((ClassType)t).getSuperClass());
-	    }
-	    
-	    return false;
+
+	    return other.preOrder <= preOrder && postOrder <= other.postOrder;
 	}
 }
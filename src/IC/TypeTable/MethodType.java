@@ -8,6 +8,11 @@ public class MethodType extends Type {
 	private List<Type> paramType;
 	private Type returnType;
 
+	/**
+	 * The structural hash code, computed once
+	 */
+	private int hash;
+
 	public MethodType(VirtualOrStatic virtualOrStatic, List<Type> paramType, Type returnType) {
 		this(null, virtualOrStatic, paramType, returnType);
 	}
@@ -16,7 +21,18 @@ public class MethodType extends Type {
 		this.virtualOrStatic = virtualOrStatic;
 		this.paramType = paramType;
 		this.returnType = returnType;
-		super.setName(toString());
+	}
+
+	/**
+	 * Get the signature of the method type, built on first use
+	 */
+	@Override
+	public String getName() {
+		if (super.getName() == null) {
+			super.setName(toString());
+		}
+
+		return super.getName();
 	}
 	
 	public boolean isStatic() {
@@ -60,31 +76,97 @@ public class MethodType extends Type {
 	}
 
 	@Override
-	public boolean subtypeOf(Type t) {
-		boolean test = false;
+	public boolean sameType(Type other) {
+		if (this == other) {
+			return true;
+		}
+
+		if (!(other instanceof MethodType)) {
+			return false;
+		}
+
+		MethodType mType = (MethodType)other;
+
+		if (mType.paramType.size() != paramType.size() || !Type.sameType(returnType, mType.returnType)) {
+			return false;
+		}
+
+		for (int i = 0; i < paramType.size(); i++) {
+			if (!Type.sameType(paramType.get(i), mType.paramType.get(i))) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public int typeHash() {
+		if (hash == 0) {
+			int result = Type.typeHash(returnType);
+
+			for (Type type : paramType) {
+				result = result * 31 + Type.typeHash(type);
+			}
+
+			hash = result;
+		}
 
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return other instanceof Type && sameType((Type)other);
+	}
+
+	@Override
+	public int hashCode() {
+		return typeHash();
+	}
+
+	@Override
+	public boolean subtypeOf(Type t) {
 		if (t instanceof MethodType) {
 			MethodType mType = (MethodType)t;
 			
-			if (mType.getName().equals(getName()) && mType.returnType.subtypeOf(returnType)) {
-				test = true;
-			}
-			
-			if (test) {
-				if (mType.paramType.size() == paramType.size()) {
-					for (int i = 0; i < paramType.size(); i++) {
-						if (!paramType.get(i).subtypeOf(mType.paramType.get(i))) {
-							test = false;
-							break;
-						}
-					}
-				} else {
-					test = false;
-				}
-			}
+			return sameType(mType) && mType.returnType.subtypeOf(returnType) && acceptsArguments(mType.paramType);
 		}
 		
-		return test;
+		return false;
+	}
+
+	/**
+	 * Whether the method can be called with arguments of some types, the same
+	 * test as <code>subtypeOf</code> a method type of the arguments, without creating it
+	 * @param argumentTypes the types of the arguments
+	 * @return true if the method accepts the arguments
+	 */
+	public boolean acceptsArguments(List<Type> argumentTypes) {
+		return acceptsArguments(argumentTypes, 0);
+	}
+
+	/**
+	 * Whether the method can be called with the argument types at the end of a list
+	 * @param argumentTypes the types, the arguments are the types from <code>from</code> on
+	 * @param from the index of the first argument type
+	 * @return true if the method accepts the arguments
+	 */
+	public boolean acceptsArguments(List<Type> argumentTypes, int from) {
+		if (argumentTypes.size() - from != paramType.size()) {
+			return false;
+		}
+
+		for (int i = 0; i < paramType.size(); i++) {
+			Type argumentType = argumentTypes.get(from + i);
+
+			if (!Type.sameType(paramType.get(i), argumentType)
+					|| !paramType.get(i).subtypeOf(argumentType)) {
+				return false;
+			}
+		}
+
+		return true;
 	}
 	
 	public enum VirtualOrStatic {
@@ -30,6 +30,33 @@ public abstract class Type {
 	}
 
 	public abstract boolean subtypeOf(Type t);
+
+	/**
+	 * Whether the type is structurally the same type as another one, e.g. a class type
+	 * of the same class, even if it's a different instance
+	 * @param other the other type
+	 * @return true if the types are the same
+	 */
+	public boolean sameType(Type other) {
+		return this == other || (other != null && getClass() == other.getClass()
+				&& getName() != null && getName().equals(other.getName()));
+	}
+
+	/**
+	 * The hash code of the structure of the type, consistent with <code>sameType</code>
+	 * @return the hash code
+	 */
+	public int typeHash() {
+		return getName() != null ? getName().hashCode() : 0;
+	}
+
+	public static boolean sameType(Type first, Type second) {
+		return first == second || (first != null && first.sameType(second));
+	}
+
+	public static int typeHash(Type type) {
+		return type != null ? type.typeHash() : 0;
+	}
 	
 	@Override
 	public String toString() {
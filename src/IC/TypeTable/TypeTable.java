@@ -1,30 +1,39 @@
 package IC.TypeTable;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
+/**
+ * The unique types of a single compilation. Every compilation creates its
+ * own table, so programs can be analyzed repeatedly or concurrently in one JVM.
+ */
 public class TypeTable {
 	
-	private static int id = 8;
+	private int id = 8;
 	
 	// Maps element types to array types
-	private static final Map<String, ClassType> uniqueClassTypes = new LinkedHashMap<String, ClassType>();
-	private static final Map<String, MethodType> uniqueMethodTypes = new LinkedHashMap<String, MethodType>();
-	private static final Map<String, ArrayType> uniqueArrayTypes = new LinkedHashMap<String, ArrayType>();
+	private final Map<String, ClassType> uniqueClassTypes = new LinkedHashMap<String, ClassType>();
+	// Method and array types are keyed by their structure, each maps to its canonical instance
+	private final Map<MethodType, MethodType> uniqueMethodTypes = new LinkedHashMap<MethodType, MethodType>();
+	private final Map<ArrayType, ArrayType> uniqueArrayTypes = new LinkedHashMap<ArrayType, ArrayType>();
 	
-	public static Type boolType = new BoolType();
-	public static Type intType = new IntType();
-	public static Type stringType = new StringType();
-	public static Type voidType = new VoidType();
-	public static Type nullType = new NullType();
+	public static final Type boolType = new BoolType();
+	public static final Type intType = new IntType();
+	public static final Type stringType = new StringType();
+	public static final Type voidType = new VoidType();
+	public static final Type nullType = new NullType();
 	
 	// Adds unique class type object
-	public static void addClassType(ClassType classType) {
+	public void addClassType(ClassType classType) {
 		// object doesn't exist - create it
 		if (!uniqueClassTypes.containsKey(classType.getName())) {
 			classType.setId(id++);
@@ -33,7 +42,7 @@ public class TypeTable {
 	}
 	
 	// Returns unique class type object
-	public static ClassType getClassType(String className) {
+	public ClassType getClassType(String className) {
 		//System.out.println("Attempting to get class: " + className);
 		if (uniqueClassTypes.containsKey(className)) {
 			// class type object already created - return it
@@ -43,41 +52,37 @@ public class TypeTable {
 		return null;
 	}
 
-	// Adds unique method type object
-	public static void addMethodType(String methodName, MethodType methodType) {
+	// Adds unique method type object, returns the canonical instance
+	public MethodType addMethodType(String methodName, MethodType methodType) {
 		// object doesn't exist - create it
-		if (!uniqueMethodTypes.containsKey(methodType.toString())) {
+		if (!uniqueMethodTypes.containsKey(methodType)) {
 			if (methodName.equals("main")) {
 				methodType.setId(7);
 			} else {
 				methodType.setId(id++);
 			}
 			
-			uniqueMethodTypes.put(methodType.toString(), methodType);
+			uniqueMethodTypes.put(methodType, methodType);
 		}
+
+		return uniqueMethodTypes.get(methodType);
 	}
 	
-	// Returns unique method type object
-	public static MethodType getMethodType(String methodName) {
-		//System.out.println("Attempting to get method: " + methodName);
-		if (uniqueMethodTypes.containsKey(methodName)) {
-			// method type object already created - return it
-			return uniqueMethodTypes.get(methodName);
-		}
-		
-		return null;
+	// Returns the canonical method type object of the same structure
+	public MethodType getMethodType(MethodType methodType) {
+		return uniqueMethodTypes.get(methodType);
 	}
 
-	// Adds unique array type object
-	public static void addArrayType(ArrayType elemType) {
+	// Adds unique array type object, returns the canonical instance
+	public ArrayType addArrayType(ArrayType elemType) {
 		// object doesn't exist - create it
-		if (!uniqueArrayTypes.containsKey(elemType.toString())) {
+		if (!uniqueArrayTypes.containsKey(elemType)) {
 			ArrayType arrayType = null;
 			
 			for (int i = 1; i < elemType.getDimention(); i++) {
 				arrayType = new ArrayType(elemType.getType(), i);
 				arrayType.setId(id++);
-				uniqueArrayTypes.put(arrayType.toString(), arrayType);
+				uniqueArrayTypes.put(arrayType, arrayType);
 			}
 			
 			if (elemType.getType().subtypeOf(TypeTable.stringType)) {
@@ -86,22 +91,58 @@ public class TypeTable {
 				elemType.setId(id++);
 			}
 			
-			uniqueArrayTypes.put(elemType.toString(), elemType);
+			uniqueArrayTypes.put(elemType, elemType);
 		}
+
+		return uniqueArrayTypes.get(elemType);
 	}
 	
-	// Returns unique array type object
-	public static ArrayType getArrayType(String arrayName) {
-		//System.out.println("Attempting to get array: " + arrayName);
-		if (uniqueArrayTypes.containsKey(arrayName)) {
-			// array type object already created - return it
-			return uniqueArrayTypes.get(arrayName);
+	// Returns the canonical array type object of the same structure
+	public ArrayType getArrayType(ArrayType arrayType) {
+		return uniqueArrayTypes.get(arrayType);
+	}
+
+	// Numbers the class types by a depth first walk from the hierarchy roots,
+	// so subtype tests are interval checks. Must be called once the superclasses are set
+	public void numberClassHierarchy() {
+		Map<ClassType, List<ClassType>> children = new HashMap<ClassType, List<ClassType>>();
+		Deque<ClassType> roots = new ArrayDeque<ClassType>();
+		
+		for (ClassType classType : uniqueClassTypes.values()) {
+			if (classType.hasSuperClass()) {
+				children.computeIfAbsent(classType.getSuperClass(), c -> new ArrayList<ClassType>()).add(classType);
+			} else {
+				roots.add(classType);
+			}
 		}
 		
-		return null;
+		int counter = 1;
+		Deque<ClassType> stack = new ArrayDeque<ClassType>();
+		Deque<Iterator<ClassType>> iterators = new ArrayDeque<Iterator<ClassType>>();
+		Map<ClassType, Integer> preOrders = new HashMap<ClassType, Integer>();
+		
+		// iterative, a deep hierarchy must not overflow the stack
+		for (ClassType root : roots) {
+			preOrders.put(root, counter++);
+			stack.push(root);
+			iterators.push(children.getOrDefault(root, Collections.<ClassType>emptyList()).iterator());
+			
+			while (!stack.isEmpty()) {
+				if (iterators.peek().hasNext()) {
+					ClassType child = iterators.peek().next();
+					preOrders.put(child, counter++);
+					stack.push(child);
+					iterators.push(children.getOrDefault(child, Collections.<ClassType>emptyList()).iterator());
+				} else {
+					ClassType classType = stack.pop();
+					iterators.pop();
+					classType.setInterval(preOrders.get(classType), counter++);
+				}
+			}
+		}
 	}
 	
-	public static String print(String path) {
+	public String print(String path) {
 		StringBuffer output = new StringBuffer();
 		
 		String fileName = path.substring(path.lastIndexOf("\\") + 1);
@@ -113,8 +154,8 @@ public class TypeTable {
 		output.append("    4. Primitive type: string\n");
 		output.append("    5. Primitive type: void\n");
 		
-		LinkedHashMap<String, ArrayType> tempArrayMap = sortMap(uniqueArrayTypes);
-		LinkedHashMap<String, MethodType> tempMethodMap = sortMap(uniqueMethodTypes);
+		LinkedHashMap<ArrayType, ArrayType> tempArrayMap = sortMap(uniqueArrayTypes);
+		LinkedHashMap<MethodType, MethodType> tempMethodMap = sortMap(uniqueMethodTypes);
 		
 		for (Entry<String, ClassType> entry : uniqueClassTypes.entrySet()) {
 			output.append("    " + entry.getValue().getId() + ". Class: " + entry.getValue().getName());
@@ -128,23 +169,23 @@ public class TypeTable {
 			 output.append("\n");
 		}
 		
-		for (Entry<String, ArrayType> entry : tempArrayMap.entrySet()) {
+		for (Entry<ArrayType, ArrayType> entry : tempArrayMap.entrySet()) {
 			output.append("    " + entry.getValue().getId() + ". Array type: " + entry.getValue() + "\n");
 		}
 		
-		for (Entry<String, MethodType> entry : tempMethodMap.entrySet()) {
+		for (Entry<MethodType, MethodType> entry : tempMethodMap.entrySet()) {
 			output.append("    " + entry.getValue().getId() + ". Method type: {" + entry.getValue() + "}\n");
 		}
 
 		return output.toString();
 	}
 	
-	private static <T> LinkedHashMap<String, T> sortMap(Map<String, T> uniquearraytypes2) {
-		List<Map.Entry<String, T>> entries =
-				  new ArrayList<Map.Entry<String, T>>(uniquearraytypes2.entrySet());
-		Collections.sort(entries, new Comparator<Map.Entry<String, T>>() {
+	private static <K, T> LinkedHashMap<K, T> sortMap(Map<K, T> uniquearraytypes2) {
+		List<Map.Entry<K, T>> entries =
+				  new ArrayList<Map.Entry<K, T>>(uniquearraytypes2.entrySet());
+		Collections.sort(entries, new Comparator<Map.Entry<K, T>>() {
 			@Override
-			public int compare(Map.Entry<String, T> a, Map.Entry<String, T> b){
+			public int compare(Map.Entry<K, T> a, Map.Entry<K, T> b){
 				if (((Type)a.getValue()).getId() >= ((Type)b.getValue()).getId()) {
 					return 1;
 				} else {
@@ -153,8 +194,8 @@ public class TypeTable {
 			}
 		});
 		
-		LinkedHashMap<String, T> sortedMap = new LinkedHashMap<String, T>();
-		for (Map.Entry<String, T> entry : entries) {
+		LinkedHashMap<K, T> sortedMap = new LinkedHashMap<K, T>();
+		for (Map.Entry<K, T> entry : entries) {
 			sortedMap.put(entry.getKey(), entry.getValue());
 		}
 		